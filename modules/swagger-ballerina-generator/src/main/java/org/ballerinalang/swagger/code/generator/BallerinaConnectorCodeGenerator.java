@@ -20,11 +20,21 @@ package org.ballerinalang.swagger.code.generator;
 import io.swagger.codegen.CliOption;
 import io.swagger.codegen.CodegenConfig;
 import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.CodegenModel;
 import io.swagger.codegen.CodegenOperation;
 import io.swagger.codegen.CodegenType;
 import io.swagger.codegen.DefaultCodegen;
 import io.swagger.codegen.SupportingFile;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
 import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +46,18 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ballerinalang.swagger.code.generator.util.BatchActions;
+import org.ballerinalang.swagger.code.generator.util.Compression;
+import org.ballerinalang.swagger.code.generator.util.Diagnostics;
+import org.ballerinalang.swagger.code.generator.util.EndpointOptions;
+import org.ballerinalang.swagger.code.generator.util.Instrumentation;
+import org.ballerinalang.swagger.code.generator.util.OperationIds;
+import org.ballerinalang.swagger.code.generator.util.Pagination;
+import org.ballerinalang.swagger.code.generator.util.RequestPaths;
+import org.ballerinalang.swagger.code.generator.util.ResponseCaching;
+import org.ballerinalang.swagger.code.generator.util.Sharding;
+import org.ballerinalang.swagger.code.generator.util.SharedModels;
+import org.ballerinalang.swagger.code.generator.util.StreamingPayloads;
 
 /**
  * This the ballerina connector generator class. Here we can add/update templates to generate
@@ -47,6 +69,10 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
 
     protected String apiVersion = "1.0.0";
     protected String apiPath = "";
+    protected Map<String, Model> definitions = new HashMap<String, Model>();
+    protected Sharding sharding;
+    protected Diagnostics diagnostics = new Diagnostics();
+    protected SharedModels sharedModels = new SharedModels();
 
     public BallerinaConnectorCodeGenerator() {
         super();
@@ -120,6 +146,7 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
         typeMapping.put("password", "string");
         typeMapping.put("binary", "string");
         typeMapping.put("ByteArray", "string");
+        typeMapping.put("UUID", "string");
         typeMapping.put("array", "string[]");
         importMapping = new HashMap<String, String>();
 
@@ -132,12 +159,15 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
          */
         additionalProperties.put("apiVersion", apiVersion);
         additionalProperties.put("apiPath", apiPath);
+        additionalProperties.put(Diagnostics.PROPERTY, diagnostics);
         /*
          * Supporting Files.  You can write single files for the generator with the
          * entire object tree available.  If the input file has a suffix of `.mustache
          * it will be processed by the template engine.  Otherwise, it will be copied
          */
-        //supportingFiles.add(new SupportingFile("model.mustache", apiPath, "types.bal"));
+        supportingFiles.add(new SupportingFile("model.mustache", apiPath, "types.bal"));
+        supportingFiles.add(new SupportingFile("endpoint.mustache", apiPath, "endpoint.bal"));
+        supportingFiles.add(new SupportingFile("helpers.mustache", apiPath, "helpers.bal"));
         supportingFiles.add(new SupportingFile("json-model.mustache", apiPath, "types.json"));
         writeOptional(outputFolder, new SupportingFile("README.mustache", apiPath, "README.md"));
         writeOptional(outputFolder, new SupportingFile("json-model.mustache", apiPath, "types.json"));
@@ -205,6 +235,108 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
     }*/
 
 
+    @Override
+    public void processOpts() {
+        super.processOpts();
+        // supporting files only see apiPackage() which is the output path, expose the package name separately
+        if (!additionalProperties.containsKey(CodegenConstants.PACKAGE_NAME)
+                && additionalProperties.containsKey(CodegenConstants.API_PACKAGE)) {
+            additionalProperties.put(CodegenConstants.PACKAGE_NAME,
+                    additionalProperties.get(CodegenConstants.API_PACKAGE));
+        }
+        Compression.processOpts(additionalProperties);
+        if (Instrumentation.processOpts(additionalProperties)) {
+            supportingFiles.add(new SupportingFile("metrics.mustache", apiPath, "metrics.bal"));
+        }
+        sharding = Sharding.fromOpts(additionalProperties, false);
+        if (ResponseCaching.isEnabled(additionalProperties)) {
+            ResponseCaching.processOpts(additionalProperties);
+            supportingFiles.add(new SupportingFile("response-cache.mustache", apiPath, "responsecache.bal"));
+        } else {
+            additionalProperties.remove(ResponseCaching.ENABLED);
+        }
+        BatchActions.processOpts(additionalProperties);
+    }
+
+    @Override
+    public void preprocessSwagger(Swagger swagger) {
+        super.preprocessSwagger(swagger);
+        if (swagger.getDefinitions() != null) {
+            definitions = swagger.getDefinitions();
+        }
+        if (sharding != null) {
+            sharding.plan(swagger, this::sanitizeTag);
+        }
+        Object endpointDefaults = swagger.getVendorExtensions() == null ? null
+                : swagger.getVendorExtensions().get(EndpointOptions.EXTENSION);
+        additionalProperties.put(EndpointOptions.PROPERTY,
+                EndpointOptions.resolve(endpointDefaults, additionalProperties));
+    }
+
+    /**
+     * Maps swagger types to ballerina types. References resolve to the generated struct, except for
+     * array and primitive definitions which do not get a struct of their own.
+     */
+    @Override
+    public String getTypeDeclaration(Property p) {
+        if (p instanceof ArrayProperty) {
+            return getTypeDeclaration(((ArrayProperty) p).getItems()) + "[]";
+        }
+        if (p instanceof MapProperty) {
+            return "map";
+        }
+        if (p instanceof RefProperty) {
+            return getRefTypeDeclaration(((RefProperty) p).getSimpleRef());
+        }
+        return super.getTypeDeclaration(p);
+    }
+
+    private String getRefTypeDeclaration(String ref) {
+        Model model = definitions.get(ref);
+        if (model instanceof ArrayModel && ((ArrayModel) model).getItems() != null) {
+            return getTypeDeclaration(((ArrayModel) model).getItems()) + "[]";
+        }
+        if (model instanceof ModelImpl) {
+            ModelImpl impl = (ModelImpl) model;
+            if (impl.getType() != null && !"object".equals(impl.getType())
+                    && (impl.getProperties() == null || impl.getProperties().isEmpty())
+                    && typeMapping.containsKey(impl.getType())) {
+                return typeMapping.get(impl.getType());
+            }
+        }
+        return toModelName(ref);
+    }
+
+    /**
+     * Definitions are built once and shared by the models bundle and every operation referencing them.
+     */
+    @Override
+    public CodegenModel fromModel(String name, Model model, Map<String, Model> allDefinitions) {
+        return sharedModels.model(name, model, () -> super.fromModel(name, model, allDefinitions));
+    }
+
+    @Override
+    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation,
+                                          Map<String, Model> definitions, Swagger swagger) {
+        Response response = operation.getResponses() == null || operation.getResponses().isEmpty() ? null
+                : findMethodResponse(operation.getResponses());
+        CodegenOperation co = SharedModels.withoutSchemaExamples(response,
+                () -> super.fromOperation(path, httpMethod, operation, definitions, swagger));
+        StreamingPayloads.addBinaryBody(co, operation);
+        Pagination.addPager(co, response, definitions, this, additionalProperties);
+        return co;
+    }
+
+    /**
+     * Operations are grouped by tag, and by shard of their tag when sharding is enabled.
+     */
+    @Override
+    public void addOperationToGroup(String tag, String resourcePath, Operation operation, CodegenOperation co,
+                                    Map<String, List<CodegenOperation>> operations) {
+        super.addOperationToGroup(sharding == null ? tag : sharding.group(tag, co.httpMethod, resourcePath),
+                resourcePath, operation, co, operations);
+    }
+
     @Override
     public Map<String, Object> postProcessOperations(Map<String, Object> objs) {
         super.postProcessOperations(objs);
@@ -214,7 +346,19 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
                 List<CodegenOperation> ops = (List<CodegenOperation>) operations.get("operation");
                 for (CodegenOperation operation : ops) {
                     operation.httpMethod = operation.httpMethod.toLowerCase();
+                    StreamingPayloads.addStreaming(operation);
+                    RequestPaths.addRequestPath(operation);
+                    if (additionalProperties.containsKey(ResponseCaching.ENABLED)) {
+                        ResponseCaching.addCacheTtl(operation, additionalProperties);
+                    }
+                }
+                if (additionalProperties.containsKey(Instrumentation.ENABLED)) {
+                    Instrumentation.addLabels(ops, additionalProperties);
+                }
+                if (additionalProperties.containsKey(BatchActions.ENABLED)) {
+                    BatchActions.addBatchActions(ops);
                 }
+                Pagination.checkActions(ops);
             }
         }
 
@@ -240,7 +384,8 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
     public String toOperationId(String operationId) {
         // method name cannot use reserved keyword, e.g. return
         if (isReservedWord(operationId)) {
-            LOGGER.warn(operationId + " (reserved word) cannot be used as method name. Renamed to " + camelize(sanitizeName("call_" + operationId)));
+            diagnostics.record(Diagnostics.Kind.RESERVED_OPERATION_ID, operationId,
+                    camelize(sanitizeName("call_" + operationId)));
             operationId = "call_" + operationId;
         }
         String name = camelize(operationId);
@@ -261,8 +406,7 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
 
         // model name cannot use reserved keyword, e.g. return
         if (isReservedWord(name)) {
-            LOGGER.warn(name + " (reserved word) cannot be used as model name. Renamed to "
-                    + camelize("model_" + name));
+            diagnostics.record(Diagnostics.Kind.RESERVED_MODEL_NAME, name, camelize("model_" + name));
             name = "model_" + name;
         }
 
@@ -288,35 +432,6 @@ public class BallerinaConnectorCodeGenerator extends DefaultCodegen implements C
 
     @Override
     protected String getOrGenerateOperationId(Operation operation, String path, String httpMethod) {
-        String operationId = operation.getOperationId();
-        if (path.contains("?")) {
-            path = path.substring(0, path.indexOf("?"));
-        }
-        if (StringUtils.isBlank(operationId)) {
-            String tmpPath = path.replaceAll("\\{", "");
-            tmpPath = tmpPath.replaceAll("\\}", "");
-            String[] parts = (tmpPath + "/" + httpMethod).split("/");
-            StringBuilder builder = new StringBuilder();
-            if ("/".equals(tmpPath)) {
-                builder.append("root");
-            }
-            for (int i = 0; i < parts.length; ++i) {
-                String part = parts[i];
-                if (part.length() > 0) {
-                    if (builder.toString().length() == 0) {
-                        part = Character.toLowerCase(part.charAt(0)) + part.substring(1);
-                    } else {
-                        part = this.initialCaps(part);
-                    }
-
-                    builder.append(part);
-                }
-            }
-
-            operationId = this.sanitizeName(builder.toString());
-            LOGGER.warn("Empty operationId found for path: " + httpMethod + " " + path + ". Renamed to auto-generated operationId: " + operationId);
-        }
-
-        return operationId;
+        return OperationIds.getOrGenerate(this, diagnostics, operation, path, httpMethod);
     }
 }
@@ -20,11 +20,28 @@ package org.ballerinalang.swagger.code.generator;
 import io.swagger.codegen.CliOption;
 import io.swagger.codegen.CodegenConfig;
 import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.CodegenModel;
 import io.swagger.codegen.CodegenOperation;
 import io.swagger.codegen.CodegenType;
 import io.swagger.codegen.DefaultCodegen;
 import io.swagger.codegen.SupportingFile;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
 import org.apache.commons.lang3.StringUtils;
+import org.ballerinalang.swagger.code.generator.util.Compression;
+import org.ballerinalang.swagger.code.generator.util.Diagnostics;
+import org.ballerinalang.swagger.code.generator.util.Instrumentation;
+import org.ballerinalang.swagger.code.generator.util.OperationIds;
+import org.ballerinalang.swagger.code.generator.util.ReplyCaching;
+import org.ballerinalang.swagger.code.generator.util.ParamValidators;
+import org.ballerinalang.swagger.code.generator.util.RequestValidators;
+import org.ballerinalang.swagger.code.generator.util.Sharding;
+import org.ballerinalang.swagger.code.generator.util.SharedModels;
+import org.ballerinalang.swagger.code.generator.util.StreamingPayloads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +62,11 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
 
     protected String apiVersion = "1.0.0";
     protected String apiPath = "";
+    protected Map<String, Model> definitions = new HashMap<String, Model>();
+    protected Sharding sharding;
+    protected Diagnostics diagnostics = new Diagnostics();
+    protected SharedModels sharedModels = new SharedModels();
+    protected ParamValidators paramValidators = new ParamValidators();
 
     public BallerinaSkeletonCodeGenerator() {
         super();
@@ -119,6 +141,7 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
         typeMapping.put("password", "string");
         typeMapping.put("binary", "string");
         typeMapping.put("ByteArray", "string");
+        typeMapping.put("UUID", "string");
         typeMapping.put("array", "string[]");
         importMapping = new HashMap<String, String>();
 
@@ -131,12 +154,15 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
          */
         additionalProperties.put("apiVersion", apiVersion);
         additionalProperties.put("apiPath", apiPath);
+        additionalProperties.put(Diagnostics.PROPERTY, diagnostics);
         /*
          * Supporting Files.  You can write single files for the generator with the
          * entire object tree available.  If the input file has a suffix of `.mustache
          * it will be processed by the template engine.  Otherwise, it will be copied
          */
         supportingFiles.add(new SupportingFile("json-model.mustache", apiPath, "types.json"));
+        supportingFiles.add(new SupportingFile("validators.mustache", apiPath, "validators.bal"));
+        supportingFiles.add(new SupportingFile("helpers.mustache", apiPath, "helpers.bal"));
         writeOptional(outputFolder, new SupportingFile("json-model.mustache", apiPath, "types.json"));
     }
 
@@ -202,6 +228,82 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
     }*/
 
 
+    @Override
+    public void processOpts() {
+        super.processOpts();
+        // supporting files only see apiPackage() which is the output path, expose the package name separately
+        if (!additionalProperties.containsKey(CodegenConstants.PACKAGE_NAME)
+                && additionalProperties.containsKey(CodegenConstants.API_PACKAGE)) {
+            additionalProperties.put(CodegenConstants.PACKAGE_NAME,
+                    additionalProperties.get(CodegenConstants.API_PACKAGE));
+        }
+        if (Compression.processOpts(additionalProperties)) {
+            supportingFiles.add(new SupportingFile("compression.mustache", apiPath, "compression.bal"));
+        }
+        if (Instrumentation.processOpts(additionalProperties)) {
+            supportingFiles.add(new SupportingFile("metrics.mustache", apiPath, "metrics.bal"));
+        }
+        sharding = Sharding.fromOpts(additionalProperties, true);
+        additionalProperties.put(ParamValidators.PROPERTY, paramValidators.getFunctions());
+    }
+
+    @Override
+    public void preprocessSwagger(Swagger swagger) {
+        super.preprocessSwagger(swagger);
+        if (swagger.getDefinitions() != null) {
+            definitions = swagger.getDefinitions();
+        }
+        if (sharding != null) {
+            sharding.plan(swagger, this::sanitizeTag);
+        }
+        if (ReplyCaching.isUsed(swagger)) {
+            additionalProperties.put("replyCache", Boolean.TRUE);
+            ReplyCaching.processOpts(additionalProperties);
+            supportingFiles.add(new SupportingFile("reply-cache.mustache", apiPath, "replycache.bal"));
+        }
+    }
+
+    @Override
+    public Map<String, Object> postProcessModels(Map<String, Object> objs) {
+        super.postProcessModels(objs);
+        Object models = objs.get("models");
+        if (models instanceof List) {
+            for (Object entry : (List<?>) models) {
+                RequestValidators.addModelRules((CodegenModel) ((Map<?, ?>) entry).get("model"), this::getValidator);
+            }
+        }
+        return objs;
+    }
+
+    /**
+     * Definitions are built once and shared by the models bundle and every operation referencing them.
+     */
+    @Override
+    public CodegenModel fromModel(String name, Model model, Map<String, Model> allDefinitions) {
+        return sharedModels.model(name, model, () -> super.fromModel(name, model, allDefinitions));
+    }
+
+    @Override
+    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation,
+                                          Map<String, Model> definitions, Swagger swagger) {
+        Response response = operation.getResponses() == null || operation.getResponses().isEmpty() ? null
+                : findMethodResponse(operation.getResponses());
+        CodegenOperation co = SharedModels.withoutSchemaExamples(response,
+                () -> super.fromOperation(path, httpMethod, operation, definitions, swagger));
+        StreamingPayloads.addBinaryBody(co, operation);
+        return co;
+    }
+
+    /**
+     * Operations are grouped by tag, and by shard of their tag when sharding is enabled.
+     */
+    @Override
+    public void addOperationToGroup(String tag, String resourcePath, Operation operation, CodegenOperation co,
+                                    Map<String, List<CodegenOperation>> operations) {
+        super.addOperationToGroup(sharding == null ? tag : sharding.group(tag, co.httpMethod, resourcePath),
+                resourcePath, operation, co, operations);
+    }
+
     @Override
     public Map<String, Object> postProcessOperations(Map<String, Object> objs) {
         super.postProcessOperations(objs);
@@ -211,6 +313,16 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
                 List<CodegenOperation> ops = (List<CodegenOperation>) operations.get("operation");
                 for (CodegenOperation operation : ops) {
                     operation.httpMethod = operation.httpMethod.toUpperCase();
+                    StreamingPayloads.addStreaming(operation);
+                    RequestValidators.addOperationRules(operation, this::getValidator);
+                    paramValidators.share(operation);
+                    ReplyCaching.addReplyCache(operation);
+                }
+                if (sharding != null) {
+                    sharding.addBasePath(objs, ops);
+                }
+                if (additionalProperties.containsKey(Instrumentation.ENABLED)) {
+                    Instrumentation.addLabels(ops, additionalProperties);
                 }
             }
         }
@@ -218,6 +330,18 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
         return objs;
     }
 
+    /**
+     * Validator functions are generated for every definition except arrays and enums.
+     */
+    private String getValidator(String type) {
+        Model model = definitions.get(type);
+        if (model == null || model instanceof ArrayModel
+                || (model instanceof ModelImpl && ((ModelImpl) model).getEnum() != null)) {
+            return null;
+        }
+        return RequestValidators.validatorName(toModelName(type));
+    }
+
 
     /**
      * Location to write api files.  You can use the apiPackage() as defined when the class is
@@ -237,7 +361,8 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
     public String toOperationId(String operationId) {
         // method name cannot use reserved keyword, e.g. return
         if (isReservedWord(operationId)) {
-            LOGGER.warn(operationId + " (reserved word) cannot be used as method name. Renamed to " + camelize(sanitizeName("call_" + operationId)));
+            diagnostics.record(Diagnostics.Kind.RESERVED_OPERATION_ID, operationId,
+                    camelize(sanitizeName("call_" + operationId)));
             operationId = "call_" + operationId;
         }
 
@@ -258,8 +383,7 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
 
         // model name cannot use reserved keyword, e.g. return
         if (isReservedWord(name)) {
-            LOGGER.warn(name + " (reserved word) cannot be used as model name. Renamed to "
-                    + camelize("model_" + name));
+            diagnostics.record(Diagnostics.Kind.RESERVED_MODEL_NAME, name, camelize("model_" + name));
             name = "model_" + name;
         }
 
@@ -283,4 +407,8 @@ public class BallerinaSkeletonCodeGenerator extends DefaultCodegen implements Co
         return input.replace("*/", "*_/").replace("/*", "/_*");
     }
 
+    @Override
+    protected String getOrGenerateOperationId(Operation operation, String path, String httpMethod) {
+        return OperationIds.getOrGenerate(this, diagnostics, operation, path, httpMethod);
+    }
 }
@@ -0,0 +1,461 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed on-disk cache of generated output trees, meant to be shared between CI runs
+ * that generate code from identical definitions.
+ * <p>
+ * Entries are keyed by the normalized definition and every file it references through an external $ref, the
+ * generation options, the template set and the generator version. On a hit the cached tree is copied into the output directory without parsing the
+ * definition into a swagger model or rendering any template. Copies rather than links keep later runs, which
+ * rewrite the output in place, from editing the cached tree.
+ * Cache size is bounded; least recently used entries are evicted first.
+ */
+public class OutputCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputCache.class);
+
+    private static final String STATS_FILE = "stats.properties";
+    private static final String LOCK_FILE = ".lock";
+    private static final String ENTRY_MARKER = ".entry";
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private static final Object LOCAL_LOCK = new Object();
+
+    private final Path cacheDir;
+
+    private final long maxSizeBytes;
+
+    private boolean hit;
+
+    public OutputCache(Path cacheDir, long maxSizeBytes) {
+        this.cacheDir = cacheDir;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Computes the cache key of a generation request.
+     *
+     * @param spec        location of the swagger definition (file path or URL)
+     * @param templateDir user supplied template directory or null for the embedded templates
+     * @param options     generation options which affect the output (language, packages, mappings etc.)
+     * @return hex encoded SHA-256 key
+     * @throws IOException if the definition or the templates cannot be read
+     */
+    public String computeKey(String spec, String templateDir, Map<String, String> options) throws IOException {
+        return computeKey(Collections.singletonList(spec), templateDir, options);
+    }
+
+    /**
+     * Computes the cache key of a generation request which merges several swagger definitions.
+     *
+     * @param specs       locations of the swagger definitions, in the order they are merged
+     * @param templateDir user supplied template directory or null for the embedded templates
+     * @param options     generation options which affect the output (language, packages, mappings etc.)
+     * @return hex encoded SHA-256 key
+     * @throws IOException if a definition or the templates cannot be read
+     */
+    public String computeKey(List<String> specs, String templateDir, Map<String, String> options)
+            throws IOException {
+        MessageDigest digest = newDigest();
+        Set<String> visited = new HashSet<>();
+        for (int i = 0; i < specs.size(); i++) {
+            addDefinition(digest, i == 0 ? "spec" : "spec" + i, specs.get(i), visited);
+        }
+        for (Map.Entry<String, String> option : new TreeMap<>(options).entrySet()) {
+            update(digest, option.getKey(), option.getValue() == null ? "" : option.getValue());
+        }
+        update(digest, "generator", generatorFingerprint());
+        if (templateDir != null) {
+            Path root = Paths.get(templateDir);
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path template : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                    update(digest, root.relativize(template).toString(), "");
+                    digest.update(Files.readAllBytes(template));
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Materializes a cached output tree into the output directory.
+     *
+     * @param key       key computed by {@link #computeKey(String, String, Map)}
+     * @param outputDir directory the generator would have written to
+     * @return true on a cache hit
+     * @throws IOException if the cached tree cannot be materialized
+     */
+    public boolean restore(String key, Path outputDir) throws IOException {
+        Path entry = cacheDir.resolve(key);
+        Files.createDirectories(cacheDir);
+        // eviction takes the same lock, so an entry cannot be deleted while it is copied
+        long[] stats = locked(() -> {
+            hit = Files.isRegularFile(entry.resolve(ENTRY_MARKER));
+            if (hit) {
+                List<Path> files;
+                try (Stream<Path> paths = Files.walk(entry)) {
+                    files = paths.filter(Files::isRegularFile)
+                            .filter(p -> !p.getFileName().toString().equals(ENTRY_MARKER))
+                            .collect(Collectors.toList());
+                }
+                for (Path cached : files) {
+                    Path target = outputDir.resolve(entry.relativize(cached).toString());
+                    Files.createDirectories(target.getParent());
+                    Files.copy(cached, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                // last modified time of the marker drives LRU eviction
+                Files.setLastModifiedTime(entry.resolve(ENTRY_MARKER),
+                        FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return recordStats();
+        });
+        LOGGER.info("Output cache " + (hit ? "hit" : "miss") + " for " + key + " (total hits: " + stats[0]
+                + ", misses: " + stats[1] + ")");
+        return hit;
+    }
+
+    /**
+     * Stores a freshly generated output tree and evicts least recently used entries over the size bound.
+     *
+     * @param key       key computed by {@link #computeKey(String, String, Map)}
+     * @param outputDir directory the generator wrote to
+     * @param files     files written by the generator
+     * @throws IOException if the tree cannot be stored
+     */
+    public void store(String key, Path outputDir, List<File> files) throws IOException {
+        Files.createDirectories(cacheDir);
+        Path root = outputDir.toAbsolutePath().normalize();
+        Path staging = cacheDir.resolve(TEMP_PREFIX + UUID.randomUUID());
+        long size = 0;
+        try {
+            // the generator reports some supporting files more than once
+            Set<Path> sources = new LinkedHashSet<>();
+            for (File file : files) {
+                sources.add(file.toPath().toAbsolutePath().normalize());
+            }
+            for (Path source : sources) {
+                if (!source.startsWith(root) || !Files.isRegularFile(source)) {
+                    continue;
+                }
+                Path cached = staging.resolve(root.relativize(source).toString());
+                Files.createDirectories(cached.getParent());
+                Files.copy(source, cached);
+                size += Files.size(cached);
+            }
+            Files.createDirectories(staging);
+            Files.write(staging.resolve(ENTRY_MARKER), String.valueOf(size).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            deleteRecursively(staging);
+            throw e;
+        }
+        try {
+            Files.move(staging, cacheDir.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+            // a concurrent run stored the same entry first
+            deleteRecursively(staging);
+        } catch (IOException e) {
+            deleteRecursively(staging);
+            if (!Files.isDirectory(cacheDir.resolve(key))) {
+                throw e;
+            }
+        }
+        if (maxSizeBytes > 0) {
+            locked(() -> {
+                evict();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * @return whether the last {@link #restore(String, Path)} was a hit
+     */
+    public boolean isHit() {
+        return hit;
+    }
+
+    private void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> children = Files.list(cacheDir)) {
+            children.filter(p -> Files.isRegularFile(p.resolve(ENTRY_MARKER))).forEach(entries::add);
+        }
+        entries.sort(Comparator.comparing(OutputCache::lastUsed));
+        long total = 0;
+        for (Path entry : entries) {
+            total += entrySize(entry);
+        }
+        for (int i = 0; total > maxSizeBytes && i < entries.size(); i++) {
+            Path entry = entries.get(i);
+            total -= entrySize(entry);
+            LOGGER.info("Evicting output cache entry " + entry.getFileName());
+            deleteRecursively(entry);
+        }
+    }
+
+    /**
+     * Counts the hit or miss of the last lookup, the caller holds the cache lock.
+     *
+     * @return total hits and misses
+     */
+    private long[] recordStats() throws IOException {
+        Properties stats = new Properties();
+        Path statsFile = cacheDir.resolve(STATS_FILE);
+        if (Files.exists(statsFile)) {
+            try (InputStream in = Files.newInputStream(statsFile)) {
+                stats.load(in);
+            }
+        }
+        long hits = Long.parseLong(stats.getProperty("hits", "0")) + (hit ? 1 : 0);
+        long misses = Long.parseLong(stats.getProperty("misses", "0")) + (hit ? 0 : 1);
+        stats.setProperty("hits", String.valueOf(hits));
+        stats.setProperty("misses", String.valueOf(misses));
+        try (OutputStream out = Files.newOutputStream(statsFile)) {
+            stats.store(out, "swagger-ballerina output cache statistics");
+        }
+        return new long[]{hits, misses};
+    }
+
+    /**
+     * Runs an action holding the lock of the cache directory, which other processes sharing the directory take too.
+     * File locks are held per process, so runs within this process also synchronize on a shared monitor.
+     */
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        synchronized (LOCAL_LOCK) {
+            try (RandomAccessFile lockFile = new RandomAccessFile(cacheDir.resolve(LOCK_FILE).toFile(), "rw");
+                 FileChannel channel = lockFile.getChannel()) {
+                FileLock lock = channel.lock();
+                try {
+                    return action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a definition and every definition it references through an external $ref to the key, so that editing a
+     * referenced file changes the key as well.
+     *
+     * @param name    name of the definition within the key
+     * @param spec    location of the definition (file path or URL)
+     * @param visited locations already added
+     */
+    private static void addDefinition(MessageDigest digest, String name, String spec, Set<String> visited)
+            throws IOException {
+        if (!visited.add(spec)) {
+            return;
+        }
+        JsonNode tree = readTree(spec);
+        update(digest, name, Json.mapper().copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .writeValueAsString(Json.mapper().treeToValue(tree, Object.class)));
+        Set<String> refs = new TreeSet<>();
+        collectExternalRefs(tree, refs);
+        for (String ref : refs) {
+            addDefinition(digest, "ref:" + ref, resolve(spec, ref), visited);
+        }
+    }
+
+    /**
+     * Normalizes a definition into a tree, so that formatting, key order and JSON/YAML representation do not affect
+     * the key.
+     */
+    private static JsonNode readTree(String spec) throws IOException {
+        String content;
+        if (isUrl(spec)) {
+            try (InputStream in = new URL(spec).openStream()) {
+                content = readFully(in);
+            }
+        } else {
+            content = new String(Files.readAllBytes(Paths.get(spec)), StandardCharsets.UTF_8);
+        }
+        ObjectMapper reader = content.trim().startsWith("{") ? Json.mapper() : Yaml.mapper();
+        return reader.readTree(content);
+    }
+
+    /**
+     * Collects the documents referenced by $ref values which point outside of the definition, without the json
+     * pointer into them.
+     */
+    private static void collectExternalRefs(JsonNode node, Set<String> refs) {
+        if (node.isObject()) {
+            JsonNode ref = node.get("$ref");
+            if (ref != null && ref.isTextual() && !ref.asText().startsWith("#")) {
+                String document = ref.asText();
+                int pointer = document.indexOf('#');
+                refs.add(pointer < 0 ? document : document.substring(0, pointer));
+            }
+        }
+        for (JsonNode child : node) {
+            collectExternalRefs(child, refs);
+        }
+    }
+
+    private static String resolve(String spec, String ref) throws IOException {
+        if (isUrl(ref)) {
+            return ref;
+        }
+        if (isUrl(spec)) {
+            return new URL(new URL(spec), ref).toString();
+        }
+        Path parent = Paths.get(spec).toAbsolutePath().getParent();
+        return parent.resolve(ref).normalize().toString();
+    }
+
+    private static boolean isUrl(String location) {
+        return location.startsWith("http://") || location.startsWith("https://");
+    }
+
+    private static String generatorFingerprint() throws IOException {
+        StringBuilder fingerprint = new StringBuilder();
+        try (InputStream in = OutputCache.class.getResourceAsStream("/version.properties")) {
+            if (in != null) {
+                Properties version = new Properties();
+                version.load(in);
+                fingerprint.append(version.getProperty("version"));
+            }
+        }
+        // snapshot builds keep the version, the jar itself tells rebuilt generators apart
+        CodeSource codeSource = OutputCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null) {
+            try {
+                File location = new File(codeSource.getLocation().toURI());
+                if (location.isFile()) {
+                    fingerprint.append(':').append(location.length()).append(':').append(location.lastModified());
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Could not locate generator code source", e);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    private static FileTime lastUsed(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry.resolve(ENTRY_MARKER));
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long entrySize(Path entry) {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(entry.resolve(ENTRY_MARKER)),
+                    StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                path.toFile().setWritable(true);
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String name, String value) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '=');
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Action run while holding the cache lock.
+     */
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+}
@@ -18,13 +18,41 @@
 package org.ballerinalang.swagger.code.generator.cmd;
 
 import io.swagger.codegen.ClientOptInput;
-import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.codegen.auth.AuthParser;
 import io.swagger.codegen.config.CodegenConfigurator;
+import io.swagger.models.Swagger;
+import io.swagger.models.auth.AuthorizationValue;
+import io.swagger.parser.SwaggerParser;
+import org.ballerinalang.swagger.code.generator.cache.OutputCache;
+import org.ballerinalang.swagger.code.generator.util.ArrayBounds;
+import org.ballerinalang.swagger.code.generator.util.Diagnostics;
+import org.ballerinalang.swagger.code.generator.util.GenerationAbortedException;
+import org.ballerinalang.swagger.code.generator.util.Guardrails;
+import org.ballerinalang.swagger.code.generator.util.Instrumentation;
+import org.ballerinalang.swagger.code.generator.util.Preflight;
+import org.ballerinalang.swagger.code.generator.util.SpecMerger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import static io.swagger.codegen.config.CodegenConfiguratorUtils.*;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getThrowableList;
+import static org.apache.commons.lang3.exception.ExceptionUtils.indexOfType;
 
 /**
  * User: lanwen
@@ -45,6 +73,8 @@ public class Generate implements Runnable {
 
    private String spec;
 
+    private List<String> mergedSpecs = Collections.emptyList();
+
     private String templateDir;
 
     private String auth;
@@ -91,8 +121,59 @@ public class Generate implements Runnable {
 
     private String httpUserAgent;
 
+    private boolean instrument;
+
+    private String diagnosticsReport;
+
+    private String cacheDir;
+
+    private long cacheMaxSize;
+
+    private long timeLimitMillis;
+
+    private long maxAllocatedBytes;
+
+    private long maxOutputBytes;
+
+    private volatile boolean cancelled;
+
+    private volatile Guardrails runGuardrails;
+
     @Override
     public void run() {
+        Guardrails guardrails = new Guardrails(timeLimitMillis, maxAllocatedBytes, maxOutputBytes);
+        runGuardrails = guardrails;
+        if (cancelled) {
+            guardrails.cancel();
+        }
+        guardrails.enter();
+        try {
+            generate(guardrails);
+        } catch (RuntimeException e) {
+            // DefaultGenerator wraps failures of operations and models, the abort names its subject on its own
+            int aborted = indexOfType(e, GenerationAbortedException.class);
+            if (aborted > 0) {
+                throw (GenerationAbortedException) getThrowableList(e).get(aborted);
+            }
+            throw e;
+        } finally {
+            guardrails.exit();
+        }
+    }
+
+    /**
+     * Cancels the run, which stops with a {@link GenerationAbortedException} at its next checkpoint. May be called
+     * from any thread, also before the run started.
+     */
+    public void cancel() {
+        cancelled = true;
+        Guardrails guardrails = runGuardrails;
+        if (guardrails != null) {
+            guardrails.cancel();
+        }
+    }
+
+    private void generate(Guardrails guardrails) {
 
         //attempt to read from config file
         CodegenConfigurator configurator = CodegenConfigurator.fromFile(configFile);
@@ -191,9 +272,155 @@ public class Generate implements Runnable {
         applyTypeMappingsKvp(typeMappings, configurator);
         applyAdditionalPropertiesKvp(additionalProperties, configurator);
         applyLanguageSpecificPrimitivesCsv(languageSpecificPrimitives, configurator);
+        if (instrument) {
+            configurator.addAdditionalProperty(Instrumentation.ENABLED, Boolean.TRUE.toString());
+        }
+
+        OutputCache outputCache = null;
+        String cacheKey = null;
+        Path outputDir = Paths.get(configurator.getOutputDir());
+        if (isNotEmpty(cacheDir)) {
+            outputCache = new OutputCache(Paths.get(cacheDir), cacheMaxSize);
+            try {
+                cacheKey = outputCache.computeKey(specs(), templateDir, cacheKeyOptions());
+                // a restored output comes without diagnostics, so runs asked for a report always generate
+                if (isEmpty(diagnosticsReport) && outputCache.restore(cacheKey, outputDir)) {
+                    return;
+                }
+            } catch (IOException e) {
+                LOG.warn("Output cache lookup failed, generating without cache. " + e.getMessage());
+                outputCache = null;
+            }
+        }
+
+        OutputSize previousSize = null;
+        try {
+            previousSize = OutputSize.of(outputDir);
+        } catch (IOException e) {
+            LOG.warn("Could not measure previous output. " + e.getMessage());
+        }
+
         final ClientOptInput clientOptInput = configurator.toClientOptInput();
+        guardrails.check("swagger definition " + spec);
+        restoreArrayBounds(clientOptInput.getSwagger(), spec);
+        if (!mergedSpecs.isEmpty()) {
+            clientOptInput.swagger(mergeSpecs(clientOptInput));
+        }
+        if (clientOptInput.getConfig() instanceof DefaultCodegen) {
+            new Preflight((DefaultCodegen) clientOptInput.getConfig()).check(clientOptInput.getSwagger());
+        }
+
+        List<File> files = new GuardedGenerator(guardrails).opts(clientOptInput).generate();
+
+        reportOutputSize(previousSize, files);
+        reportDiagnostics(clientOptInput.getConfig().additionalProperties().get(Diagnostics.PROPERTY));
+
+        if (outputCache != null) {
+            try {
+                outputCache.store(cacheKey, outputDir, files);
+            } catch (IOException e) {
+                LOG.warn("Could not store generated output in cache. " + e.getMessage());
+            }
+        }
+    }
 
-        new DefaultGenerator().opts(clientOptInput).generate();
+    /**
+     * Merges the definitions given with {@link #setMergedSpecs(List)} into the one read by the configurator.
+     */
+    private Swagger mergeSpecs(ClientOptInput clientOptInput) {
+        if (clientOptInput.getSwagger() == null) {
+            throw new IllegalArgumentException("Could not read swagger definition " + spec);
+        }
+        List<Swagger> specs = new ArrayList<>();
+        specs.add(clientOptInput.getSwagger());
+        Guardrails guardrails = Guardrails.current();
+        List<AuthorizationValue> authorizationValues = AuthParser.parse(auth);
+        specs.addAll(mergedSpecs.parallelStream().map(location -> {
+            Guardrails.checkpoint(guardrails, "swagger definition " + location);
+            Swagger parsed = new SwaggerParser().read(location, authorizationValues, true);
+            if (parsed == null) {
+                throw new IllegalArgumentException("Could not read swagger definition " + location);
+            }
+            restoreArrayBounds(parsed, location);
+            return parsed;
+        }).collect(Collectors.toList()));
+        return new SpecMerger().merge(specs(), specs);
+    }
+
+    /**
+     * Puts back the array bounds the parser drops, which synthesized examples honour.
+     */
+    private static void restoreArrayBounds(Swagger swagger, String location) {
+        if (swagger == null) {
+            return;
+        }
+        try {
+            ArrayBounds.restore(swagger, location);
+        } catch (IOException e) {
+            LOG.warn("Could not read array bounds of " + location + ". " + e.getMessage());
+        }
+    }
+
+    private List<String> specs() {
+        List<String> specs = new ArrayList<>();
+        specs.add(spec);
+        specs.addAll(mergedSpecs);
+        return specs;
+    }
+
+    private void reportDiagnostics(Object collected) {
+        if (!(collected instanceof Diagnostics)) {
+            return;
+        }
+        Diagnostics diagnostics = (Diagnostics) collected;
+        if (!diagnostics.isEmpty()) {
+            LOG.warn("Names changed during generation:\n" + diagnostics.summary());
+        }
+        if (isNotEmpty(diagnosticsReport)) {
+            try {
+                diagnostics.writeReport(new File(diagnosticsReport));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write diagnostics report " + diagnosticsReport, e);
+            }
+        }
+    }
+
+    private void reportOutputSize(OutputSize previousSize, List<File> files) {
+        try {
+            OutputSize size = OutputSize.ofFiles(files);
+            if (previousSize == null || previousSize.isEmpty()) {
+                LOG.info("Generated " + size);
+            } else {
+                LOG.info("Generated " + size + ", replacing " + previousSize);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not measure generated output. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Options which affect the generated output and hence take part in the output cache key.
+     */
+    private Map<String, String> cacheKeyOptions() throws IOException {
+        Map<String, String> options = new HashMap<>();
+        options.put("lang", lang);
+        options.put("apiPackage", apiPackage);
+        options.put("modelPackage", modelPackage);
+        options.put("modelNamePrefix", modelNamePrefix);
+        options.put("modelNameSuffix", modelNameSuffix);
+        options.put("instantiationTypes", instantiationTypes);
+        options.put("typeMappings", typeMappings);
+        options.put("additionalProperties", additionalProperties);
+        options.put("languageSpecificPrimitives", languageSpecificPrimitives);
+        options.put("importMappings", importMappings);
+        options.put("invokerPackage", invokerPackage);
+        options.put("library", library);
+        options.put("systemProperties", systemProperties);
+        options.put("instrument", String.valueOf(instrument));
+        if (isNotEmpty(configFile)) {
+            options.put("configFile", new String(Files.readAllBytes(Paths.get(configFile)), StandardCharsets.UTF_8));
+        }
+        return options;
     }
 
     public void setLang(String lang) {
@@ -212,6 +439,14 @@ public class Generate implements Runnable {
         this.spec = spec;
     }
 
+    /**
+     * @param mergedSpecs further swagger definitions merged into the one set with {@link #setSpec(String)}, to
+     *                    generate a single package from all of them
+     */
+    public void setMergedSpecs(List<String> mergedSpecs) {
+        this.mergedSpecs = mergedSpecs == null ? Collections.<String>emptyList() : mergedSpecs;
+    }
+
     public void setVerbose(Boolean verbose) {
         this.verbose = verbose;
     }
@@ -304,4 +539,41 @@ public class Generate implements Runnable {
         this.httpUserAgent = httpUserAgent;
     }
 
+    public void setInstrument(boolean instrument) {
+        this.instrument = instrument;
+    }
+
+    public void setDiagnosticsReport(String diagnosticsReport) {
+        this.diagnosticsReport = diagnosticsReport;
+    }
+
+    public void setCacheDir(String cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public void setCacheMaxSize(long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    /**
+     * @param timeLimitMillis wall time the run may take before it is aborted, unlimited if zero
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * @param maxAllocatedBytes bytes the generating thread may allocate before the run is aborted, unlimited if zero
+     */
+    public void setMaxAllocatedBytes(long maxAllocatedBytes) {
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    /**
+     * @param maxOutputBytes bytes of generated files the run may write before it is aborted, unlimited if zero
+     */
+    public void setMaxOutputBytes(long maxOutputBytes) {
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
 }
@@ -0,0 +1,67 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import io.swagger.codegen.CodegenConfig;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import org.ballerinalang.swagger.code.generator.util.Guardrails;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generator which checks the budget of the run before every operation, definition and file. DefaultGenerator builds
+ * definitions one at a time, so a run over its budget stops at the definition, operation or file which took it there.
+ */
+final class GuardedGenerator extends DefaultGenerator {
+
+    private final Guardrails guardrails;
+
+    GuardedGenerator(Guardrails guardrails) {
+        this.guardrails = guardrails;
+    }
+
+    @Override
+    public void processOperation(String resourcePath, String httpMethod, Operation operation,
+                                 Map<String, List<CodegenOperation>> operations, Path path) {
+        guardrails.check("operation " + httpMethod.toUpperCase(Locale.ROOT) + " " + resourcePath);
+        super.processOperation(resourcePath, httpMethod, operation, operations, path);
+    }
+
+    @Override
+    public Map<String, Object> processModels(CodegenConfig config, Map<String, Model> definitions,
+                                             Map<String, Model> allDefinitions) {
+        guardrails.check(definitions.size() == 1 ? "definition " + definitions.keySet().iterator().next()
+                : definitions.size() + " definitions");
+        return super.processModels(config, definitions, allDefinitions);
+    }
+
+    @Override
+    public File writeToFile(String filename, String contents) throws IOException {
+        guardrails.addOutput(new File(filename).getPath(), contents.getBytes(StandardCharsets.UTF_8).length);
+        return super.writeToFile(filename, contents);
+    }
+}
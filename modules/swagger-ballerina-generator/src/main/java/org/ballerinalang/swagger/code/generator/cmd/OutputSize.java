@@ -0,0 +1,111 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Size of the ballerina sources in an output directory. Generation reports the size of its output next to the size
+ * of the sources it replaced, which shows the effect of generator changes and options on what downstream builds
+ * have to compile.
+ */
+final class OutputSize {
+
+    private static final String SOURCE_SUFFIX = ".bal";
+
+    private int files;
+    private long lines;
+    private long bytes;
+    private Path largest;
+    private long largestLines;
+
+    private OutputSize() {
+    }
+
+    /**
+     * @param directory output directory, which may not exist yet
+     * @return size of the ballerina sources in the directory
+     * @throws IOException if the directory cannot be read
+     */
+    static OutputSize of(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new OutputSize();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return of(paths.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * @param generated generated files
+     * @return size of the generated ballerina sources
+     * @throws IOException if a file cannot be read
+     */
+    static OutputSize ofFiles(List<File> generated) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (File file : generated == null ? Collections.<File>emptyList() : generated) {
+            paths.add(file.toPath());
+        }
+        return of(paths);
+    }
+
+    private static OutputSize of(List<Path> paths) throws IOException {
+        OutputSize size = new OutputSize();
+        for (Path path : paths) {
+            if (!path.toString().endsWith(SOURCE_SUFFIX) || !Files.isRegularFile(path)) {
+                continue;
+            }
+            byte[] content = Files.readAllBytes(path);
+            long fileLines = 0;
+            for (byte b : content) {
+                if (b == '\n') {
+                    fileLines++;
+                }
+            }
+            size.files++;
+            size.lines += fileLines;
+            size.bytes += content.length;
+            if (size.largest == null || fileLines > size.largestLines) {
+                size.largest = path.getFileName();
+                size.largestLines = fileLines;
+            }
+        }
+        return size;
+    }
+
+    boolean isEmpty() {
+        return files == 0;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "no ballerina sources";
+        }
+        return files + " ballerina sources, " + lines + " lines, " + bytes + " bytes, largest " + largest + " with "
+                + largestLines + " lines";
+    }
+}
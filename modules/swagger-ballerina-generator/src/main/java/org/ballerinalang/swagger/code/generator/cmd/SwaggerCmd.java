@@ -24,23 +24,29 @@ import io.swagger.codegen.CodegenConstants;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.ballerinalang.launcher.BLauncherCmd;
 import org.ballerinalang.launcher.LauncherUtils;
+import org.ballerinalang.swagger.code.generator.server.GeneratorServer;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.net.UnknownHostException;
 import java.util.List;
 
 /**
  * Class to implement "swagger" command for ballerina.
- * Ex: ballerina swagger (connector | skeleton | mock) (swaggerFile) -p(package name) -d(output directory name)
+ * Ex: ballerina swagger (connector | skeleton | mock) (swaggerFile)... -p(package name) -d(output directory name)
+ * Ex: ballerina swagger serve --port(port)
  */
 @Parameters(commandNames = "swagger", commandDescription = "Generate connector/service using swagger definition")
 public class SwaggerCmd implements BLauncherCmd {
-    private final String CONNECTOR = "connector";
-    private final String SKELETON = "skeleton";
-    private final String MOCK = "mock";
+    private static final String CONNECTOR = "connector";
+    private static final String SKELETON = "skeleton";
+    private static final String MOCK = "mock";
+    private static final String SERVE = "serve";
 
     private static final PrintStream outStream = System.err;
 
-    @Parameter(arity = 1, description = "<action> <swagger specification>. action : connector|skeleton|mock")
+    @Parameter(arity = 1, description = "<action> <swagger specification>... action : connector|skeleton|mock, " +
+            "several specifications are merged into one package")
     private List<String> argList;
 
     @Parameter(names = {"-d", "--directory"},
@@ -50,6 +56,44 @@ public class SwaggerCmd implements BLauncherCmd {
     @Parameter(names = {"-p", "--package"}, description = CodegenConstants.API_PACKAGE_DESC)
     private String apiPackage;
 
+    @Parameter(names = {"-a", "--additional-properties"}, description = "comma separated name=value pairs " +
+            "passed to the generator, e.g. connector endpoint defaults keepAlive=false")
+    private String additionalProperties;
+
+    @Parameter(names = {"--instrument"}, description = "emit request count, in flight, error and latency metrics " +
+            "for every resource and action, exposed on /metrics by services")
+    private boolean instrument;
+
+    @Parameter(names = {"--diagnostics-report"}, description = "json file to write the names changed during " +
+            "generation to, e.g. operations without operationId")
+    private String diagnosticsReport;
+
+    @Parameter(names = {"--cache-dir"}, description = "directory of the output cache shared between runs " +
+            "(disabled by default)")
+    private String cacheDir;
+
+    @Parameter(names = {"--cache-max-size"}, description = "maximum size of the output cache in MB " +
+            "(unbounded by default)")
+    private long cacheMaxSize;
+
+    @Parameter(names = {"--time-limit"}, description = "seconds a generation may take before it is aborted " +
+            "(unlimited by default, two minutes per request in serve mode)")
+    private Long timeLimit;
+
+    @Parameter(names = {"--max-allocation"}, description = "MB a generation may allocate before it is aborted " +
+            "(unlimited by default)")
+    private Long maxAllocation;
+
+    @Parameter(names = {"--max-output"}, description = "MB of sources a generation may write before it is " +
+            "aborted (unlimited by default, 256 per request in serve mode)")
+    private Long maxOutput;
+
+    @Parameter(names = {"--port"}, description = "port to listen on in serve mode (9090 by default)")
+    private int port = 9090;
+
+    @Parameter(names = {"--host"}, description = "address to listen on in serve mode (loopback by default)")
+    private String host;
+
     @Parameter(names = { "-h", "--help" }, hidden = true)
     private boolean helpFlag;
 
@@ -60,24 +104,42 @@ public class SwaggerCmd implements BLauncherCmd {
             return;
         }
 
+        if (argList != null && argList.size() == 1 && SERVE.equals(argList.get(0))) {
+            serve();
+            return;
+        }
+
         if (argList == null || argList.size() < 2) {
             throw LauncherUtils.createUsageException("Swagger action and a swagger file should be provided. " +
                     "Ex: ballerina swagger connector swagger_file");
         }
-        String action = argList.get(0);
+        String targetLanguage = getTargetLanguage(argList.get(0));
+        if (targetLanguage == null) {
+            throw LauncherUtils.createUsageException("Only following actions(connector, skeleton, mock) are " +
+                    "supported in swagger command");
+        }
+        generateFromSwagger(targetLanguage);
+    }
+
+    /**
+     * Maps a swagger command action to the name of the generator which implements it.
+     *
+     * @param action one of connector, skeleton or mock
+     * @return generator name or null if the action is not supported
+     */
+    public static String getTargetLanguage(String action) {
+        if (action == null) {
+            return null;
+        }
         switch (action) {
             case CONNECTOR:
-                generateFromSwagger("ballerina-connector");
-                break;
+                return "ballerina-connector";
             case SKELETON:
-                generateFromSwagger("ballerina-skeleton");
-                break;
+                return "ballerina-skeleton";
             case MOCK:
-                generateFromSwagger("ballerina-mock-service");
-                break;
+                return "ballerina-mock-service";
             default:
-                throw LauncherUtils.createUsageException("Only following actions(connector, skeleton, mock) are " +
-                        "supported in swagger command");
+                return null;
         }
     }
 
@@ -88,11 +150,16 @@ public class SwaggerCmd implements BLauncherCmd {
 
     @Override
     public void printUsage(StringBuilder stringBuilder) {
-        stringBuilder.append("  ballerina swagger <connector | skeleton | mock> <swaggerFile> -p<package name> " +
-                "-d<output directory name>\n");
+        stringBuilder.append("  ballerina swagger <connector | skeleton | mock> <swaggerFile>... -p<package name> " +
+                "-d<output directory name> [-a<name=value,...>] [--instrument] [--diagnostics-report<file>]\n" +
+                "  \t[--cache-dir<cache directory>] [--time-limit<seconds>] [--max-allocation<MB>] " +
+                "[--max-output<MB>]\n");
         stringBuilder.append("\tconnector : generates a ballerina connector\n");
         stringBuilder.append("\tskeleton  : generates a ballerina service skeleton\n");
         stringBuilder.append("\tmock      : generates a ballerina mock service with sample responses\n");
+        stringBuilder.append("  ballerina swagger serve --port<port> [--host<address>] [--time-limit<seconds>] " +
+                "[--max-allocation<MB>] [--max-output<MB>]\n");
+        stringBuilder.append("\tserve     : starts a local HTTP server which generates any of the above on request\n");
     }
     private void printCommandUsageInfo() {
         StringBuilder out = new StringBuilder();
@@ -110,9 +177,24 @@ public class SwaggerCmd implements BLauncherCmd {
     private void generateFromSwagger(String targetLanguage){
         Generate generate = new Generate();
         generate.setSpec(argList.get(1));   //set swagger specification
+        generate.setMergedSpecs(argList.subList(2, argList.size()));
         generate.setLang(targetLanguage);
         generate.setOutput(output);
         generate.setApiPackage(apiPackage);
+        generate.setAdditionalProperties(additionalProperties);
+        generate.setInstrument(instrument);
+        generate.setDiagnosticsReport(diagnosticsReport);
+        generate.setCacheDir(cacheDir);
+        generate.setCacheMaxSize(cacheMaxSize * 1024 * 1024);
+        if (timeLimit != null) {
+            generate.setTimeLimitMillis(timeLimit * 1000);
+        }
+        if (maxAllocation != null) {
+            generate.setMaxAllocatedBytes(maxAllocation * 1024 * 1024);
+        }
+        if (maxOutput != null) {
+            generate.setMaxOutputBytes(maxOutput * 1024 * 1024);
+        }
         try {
             generate.run();
         } catch (Exception e) {
@@ -126,6 +208,35 @@ public class SwaggerCmd implements BLauncherCmd {
         }
     }
 
+    private void serve() {
+        GeneratorServer server = new GeneratorServer();
+        server.setPort(port);
+        try {
+            if (host != null) {
+                server.setHost(host);
+            }
+        } catch (UnknownHostException e) {
+            throw LauncherUtils.createUsageException("Unknown address " + host + " to listen on");
+        }
+        if (timeLimit != null) {
+            server.setTimeLimitMillis(timeLimit * 1000);
+        }
+        if (maxAllocation != null) {
+            server.setMaxAllocatedBytes(maxAllocation * 1024 * 1024);
+        }
+        if (maxOutput != null) {
+            server.setMaxOutputBytes(maxOutput * 1024 * 1024);
+        }
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw LauncherUtils.createUsageException("Error occurred when starting swagger generator server on port "
+                    + port + ". " + e.getMessage());
+        }
+        outStream.println("Swagger generator server listening on port " + server.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+
     @Override
     public void setParentCmdParser(JCommander parentCmdParser) {
     }
@@ -0,0 +1,72 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of generated archives, keyed by spec hash and generation options. The cache holds at most a number
+ * of archives and at most a number of bytes in total; archives larger than the byte bound are not cached at all.
+ */
+public class GenerationResultCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    // access ordered map so that the first entry is always the least recently used one
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param maxEntries largest number of cached archives
+     * @param maxBytes   largest total size of the cached archives
+     */
+    public GenerationResultCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, byte[] archive) {
+        if (maxEntries <= 0 || archive.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, archive);
+        totalBytes += archive.length - (previous == null ? 0 : previous.length);
+        Iterator<byte[]> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || totalBytes > maxBytes) {
+            totalBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return total size of the cached archives in bytes
+     */
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+}
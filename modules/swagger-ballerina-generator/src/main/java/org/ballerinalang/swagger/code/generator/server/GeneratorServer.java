@@ -0,0 +1,494 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.ballerinalang.swagger.code.generator.cmd.Generate;
+import org.ballerinalang.swagger.code.generator.cmd.SwaggerCmd;
+import org.ballerinalang.swagger.code.generator.util.GenerationAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Embeddable HTTP front end for the generators. Runs generation in-process instead of forking a
+ * "ballerina swagger" process per request.
+ * <p>
+ * POST /generate?action=(connector|skeleton|mock)&amp;package=(package name) with the swagger definition
+ * as the request body returns the generated sources as a zip archive. GET /metrics returns request
+ * latency and cache counters. Generation runs on a bounded executor; requests arriving when all workers
+ * and queue slots are taken are rejected with 429. The server listens on the loopback address unless told
+ * otherwise, and rejects definitions over the maximum request size with 413.
+ * <p>
+ * Every generation runs within a time limit and an allocation and output budget. A generation going over its
+ * budget is aborted at its next checkpoint and answered with 422 naming the path, definition or file it was
+ * processing, and one which does not reach a checkpoint in time is cancelled and answered with 503.
+ */
+public class GeneratorServer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratorServer.class);
+
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_PAYLOAD_TOO_LARGE = 413;
+    private static final int STATUS_UNPROCESSABLE_ENTITY = 422;
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final int STATUS_INTERNAL_ERROR = 500;
+    private static final int STATUS_SERVICE_UNAVAILABLE = 503;
+
+    // time given to a generation past its time limit to reach a checkpoint before it is cancelled
+    private static final long ABORT_GRACE_MILLIS = 5000;
+
+    // dispatch threads left free to answer requests without generating, e.g. with 429, while generations wait
+    private static final int ADMISSION_THREADS = 4;
+
+    // how often a request waiting in the queue checks whether its generation was cancelled before it started
+    private static final long QUEUE_POLL_MILLIS = 1000;
+
+    private int port = 9090;
+
+    private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+
+    private long maxRequestSize = 16L * 1024 * 1024;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    private int queueCapacity = 16;
+
+    private int cacheSize = 64;
+
+    private long cacheMaxBytes = 64L * 1024 * 1024;
+
+    private long timeLimitMillis = 120000;
+
+    private long maxAllocatedBytes;
+
+    private long maxOutputBytes = 256L * 1024 * 1024;
+
+    private HttpServer httpServer;
+
+    private ThreadPoolExecutor generationExecutor;
+
+    private ExecutorService dispatchExecutor;
+
+    private GenerationResultCache cache;
+
+    private final GeneratorServerMetrics metrics = new GeneratorServerMetrics();
+
+    /**
+     * Binds the HTTP listener and starts accepting generation requests.
+     *
+     * @throws IOException if the listener cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("Generator server is already running on port " + port);
+        }
+        cache = new GenerationResultCache(cacheSize, cacheMaxBytes);
+        generationExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity)), new ThreadPoolExecutor.AbortPolicy());
+        // every admitted generation holds a dispatch thread while it waits, the threads beyond those answer cache
+        // hits, metrics and rejections while the generator is saturated; requests beyond that wait in the queue and
+        // then on the accepting thread, which stops taking new connections until a dispatch thread is free
+        int dispatchThreads = workers + Math.max(1, queueCapacity) + ADMISSION_THREADS;
+        ThreadPoolExecutor dispatch = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(dispatchThreads), new ThreadPoolExecutor.CallerRunsPolicy());
+        dispatch.allowCoreThreadTimeOut(true);
+        dispatchExecutor = dispatch;
+
+        httpServer = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        httpServer.createContext("/generate", this::handleGenerate);
+        httpServer.createContext("/metrics", this::handleMetrics);
+        httpServer.setExecutor(dispatchExecutor);
+        httpServer.start();
+        port = httpServer.getAddress().getPort();
+        LOGGER.info("Swagger generator server started on " + bindAddress.getHostAddress() + ":" + port);
+    }
+
+    /**
+     * Stops the listener and waits for in-flight generations to finish.
+     */
+    public synchronized void stop() {
+        if (httpServer == null) {
+            return;
+        }
+        httpServer.stop(0);
+        generationExecutor.shutdown();
+        dispatchExecutor.shutdown();
+        try {
+            generationExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        httpServer = null;
+    }
+
+    public GeneratorServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the bound port, which differs from the configured one when port 0 was requested
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * @param host address to listen on, the loopback address by default
+     * @throws UnknownHostException if the address cannot be resolved
+     */
+    public void setHost(String host) throws UnknownHostException {
+        this.bindAddress = InetAddress.getByName(host);
+    }
+
+    /**
+     * @param maxRequestSize largest swagger definition accepted in bytes, 16 MB by default
+     */
+    public void setMaxRequestSize(long maxRequestSize) {
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * @param cacheMaxBytes total size of the cached archives in bytes, 64 MB by default; larger archives are not
+     *                      cached
+     */
+    public void setCacheMaxBytes(long cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+
+    /**
+     * @param timeLimitMillis wall time a generation may take, two minutes by default, unlimited if zero
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * @param maxAllocatedBytes bytes a generation may allocate, unlimited by default or if zero
+     */
+    public void setMaxAllocatedBytes(long maxAllocatedBytes) {
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    /**
+     * @param maxOutputBytes bytes of sources a generation may write, 256 MB by default, unlimited if zero
+     */
+    public void setMaxOutputBytes(long maxOutputBytes) {
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            sendResponse(exchange, STATUS_OK, "text/plain; charset=utf-8",
+                    metrics.render().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        metrics.requestStarted();
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendError(exchange, STATUS_METHOD_NOT_ALLOWED, "Only POST is supported");
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String action = query.get("action");
+            String targetLanguage = SwaggerCmd.getTargetLanguage(action);
+            if (targetLanguage == null) {
+                sendError(exchange, STATUS_BAD_REQUEST, "Query parameter 'action' must be one of connector, "
+                        + "skeleton or mock");
+                return;
+            }
+            String apiPackage = query.get("package");
+            byte[] spec = readFully(exchange.getRequestBody(), maxRequestSize);
+            if (spec == null) {
+                sendError(exchange, STATUS_PAYLOAD_TOO_LARGE, "Swagger definition is larger than the maximum of "
+                        + maxRequestSize + " bytes");
+                return;
+            }
+            if (spec.length == 0) {
+                sendError(exchange, STATUS_BAD_REQUEST, "Request body should contain a swagger definition");
+                return;
+            }
+
+            String cacheKey = cacheKey(spec, action, apiPackage);
+            byte[] archive = cache.get(cacheKey);
+            if (archive != null) {
+                metrics.cacheHit();
+            } else {
+                metrics.cacheMiss();
+                Future<byte[]> result;
+                CountDownLatch started = new CountDownLatch(1);
+                try {
+                    result = generationExecutor.submit(() -> {
+                        started.countDown();
+                        return generate(spec, targetLanguage, apiPackage);
+                    });
+                } catch (RejectedExecutionException e) {
+                    metrics.rejected();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    sendError(exchange, STATUS_TOO_MANY_REQUESTS, "Generator is saturated, retry later");
+                    return;
+                }
+                archive = await(result, started);
+                cache.put(cacheKey, archive);
+            }
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + action + ".zip\"");
+            sendResponse(exchange, STATUS_OK, "application/zip", archive);
+        } catch (ExecutionException e) {
+            metrics.failed();
+            Throwable rootCause = ExceptionUtils.getRootCause(e);
+            String causeMessage = rootCause != null ? rootCause.getMessage() : e.getMessage();
+            if (rootCause instanceof GenerationAbortedException) {
+                metrics.aborted();
+                sendError(exchange, ((GenerationAbortedException) rootCause).isCancelled()
+                        ? STATUS_SERVICE_UNAVAILABLE : STATUS_UNPROCESSABLE_ENTITY, causeMessage);
+                return;
+            }
+            sendError(exchange, STATUS_BAD_REQUEST, "Error occurred when generating code. " + causeMessage);
+        } catch (TimeoutException e) {
+            metrics.failed();
+            metrics.aborted();
+            sendError(exchange, STATUS_SERVICE_UNAVAILABLE, "Generation did not stop within its time limit of "
+                    + timeLimitMillis + " ms and was cancelled");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.failed();
+            sendError(exchange, STATUS_INTERNAL_ERROR, "Generation was interrupted");
+        } finally {
+            metrics.requestCompleted(System.nanoTime() - start);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Waits for a generation, cancelling it if it neither finishes nor aborts by the end of its grace period. The
+     * time limit of a generation runs from when a worker starts it, like its budget, so the time it spent queued
+     * behind other requests does not count against it.
+     */
+    private byte[] await(Future<byte[]> result, CountDownLatch started)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        if (timeLimitMillis <= 0) {
+            return result.get();
+        }
+        // queued requests are bounded by the queue capacity and move on as workers finish within their limits
+        boolean running = started.await(QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        while (!running && !result.isDone()) {
+            running = started.await(QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        try {
+            return result.get(timeLimitMillis + ABORT_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // interrupts the worker, which frees it at its next checkpoint or blocking call
+            result.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Generates the sources of a definition on a worker thread.
+     *
+     * @return the generated sources as a zip archive
+     */
+    byte[] generate(byte[] spec, String targetLanguage, String apiPackage) throws IOException {
+        Path workDir = Files.createTempDirectory("swagger-ballerina");
+        try {
+            Path specFile = workDir.resolve("swagger.spec");
+            Files.write(specFile, spec);
+            Path outputDir = workDir.resolve("out");
+
+            Generate generate = new Generate();
+            generate.setSpec(specFile.toString());
+            generate.setLang(targetLanguage);
+            generate.setOutput(outputDir.toString());
+            generate.setApiPackage(apiPackage);
+            generate.setTimeLimitMillis(timeLimitMillis);
+            generate.setMaxAllocatedBytes(maxAllocatedBytes);
+            generate.setMaxOutputBytes(maxOutputBytes);
+            generate.run();
+
+            return zip(outputDir);
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * @return the number of generations waiting for a worker
+     */
+    int queuedGenerations() {
+        return generationExecutor.getQueue().size();
+    }
+
+    private static byte[] zip(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(root)) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(Files::isRegularFile).forEach(files::add);
+            }
+        }
+        // sorted so that identical outputs produce identical archives
+        Collections.sort(files);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Path file : files) {
+                zip.putNextEntry(new ZipEntry(root.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String cacheKey(byte[] spec, String action, String apiPackage) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(spec);
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.append('|').append(action).append('|').append(StringUtils.defaultString(apiPackage))
+                    .toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        if (StringUtils.isEmpty(rawQuery)) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int idx = pair.indexOf('=');
+            if (idx > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, idx), "UTF-8"),
+                        URLDecoder.decode(pair.substring(idx + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * @return the bytes read, or null if there are more than the limit
+     */
+    private static byte[] readFully(InputStream in, long limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > limit) {
+                return null;
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendResponse(exchange, status, "text/plain; charset=utf-8", message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendResponse(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    Files.delete(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete temporary directory " + dir, e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Request latency and cache counters of the {@link GeneratorServer}.
+ * Exposed in a plain "name value" text format through the metrics endpoint.
+ */
+public class GeneratorServerMetrics {
+
+    // upper bounds (ms) of the latency histogram buckets, the last bucket is unbounded
+    private static final long[] LATENCY_BUCKETS_MS = {10, 50, 100, 500, 1000, 5000, 30000};
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong latencyTotalNanos = new AtomicLong();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+    void requestStarted() {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    void requestCompleted(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        latencyTotalNanos.addAndGet(elapsedNanos);
+        long max;
+        do {
+            max = latencyMaxNanos.get();
+        } while (elapsedNanos > max && !latencyMaxNanos.compareAndSet(max, elapsedNanos));
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && elapsedMs > LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    void aborted() {
+        aborted.incrementAndGet();
+    }
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    void cacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getAborted() {
+        return aborted.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Renders the current counters, one metric per line.
+     *
+     * @return metrics in "name value" text format
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append("requests_total ").append(requests.get()).append('\n');
+        out.append("requests_in_flight ").append(inFlight.get()).append('\n');
+        out.append("requests_rejected_total ").append(rejected.get()).append('\n');
+        out.append("requests_failed_total ").append(failed.get()).append('\n');
+        out.append("requests_aborted_total ").append(aborted.get()).append('\n');
+        out.append("cache_hits_total ").append(cacheHits.get()).append('\n');
+        out.append("cache_misses_total ").append(cacheMisses.get()).append('\n');
+        out.append("request_latency_ms_sum ")
+                .append(TimeUnit.NANOSECONDS.toMillis(latencyTotalNanos.get())).append('\n');
+        out.append("request_latency_ms_max ")
+                .append(TimeUnit.NANOSECONDS.toMillis(latencyMaxNanos.get())).append('\n');
+        long cumulative = 0;
+        for (int i = 0; i < latencyBuckets.length(); i++) {
+            cumulative += latencyBuckets.get(i);
+            String bound = i < LATENCY_BUCKETS_MS.length ? String.valueOf(LATENCY_BUCKETS_MS[i]) : "+Inf";
+            out.append("request_latency_ms_bucket{le=\"").append(bound).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        return out.toString();
+    }
+}
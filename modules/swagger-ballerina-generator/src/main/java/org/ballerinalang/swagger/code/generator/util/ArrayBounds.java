@@ -0,0 +1,212 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Restores the {@code minItems} and {@code maxItems} bounds of arrays, which the swagger parser drops.
+ * <p>
+ * The bounds are read from the definition document itself and set on the array properties of definitions and
+ * response schemas; array definitions keep them as the {@link #MIN_ITEMS} and {@link #MAX_ITEMS} vendor
+ * extensions, since their model has no such fields. Definitions pulled in through external references are not
+ * part of the document and keep no bounds.
+ */
+public class ArrayBounds {
+
+    /**
+     * Vendor extension of array definitions holding their {@code minItems}.
+     */
+    public static final String MIN_ITEMS = "x-ballerina-min-items";
+
+    /**
+     * Vendor extension of array definitions holding their {@code maxItems}.
+     */
+    public static final String MAX_ITEMS = "x-ballerina-max-items";
+
+    private ArrayBounds() {
+    }
+
+    /**
+     * @param swagger  definition read from the location
+     * @param location file path or URL of the definition
+     * @throws IOException if the definition document could not be read
+     */
+    public static void restore(Swagger swagger, String location) throws IOException {
+        restore(swagger, readTree(location));
+    }
+
+    /**
+     * @param swagger definition to update
+     * @param tree    document the definition was read from
+     */
+    public static void restore(Swagger swagger, JsonNode tree) {
+        if (swagger.getDefinitions() != null) {
+            for (Map.Entry<String, Model> definition : swagger.getDefinitions().entrySet()) {
+                model(definition.getValue(), tree.path("definitions").path(definition.getKey()));
+            }
+        }
+        if (swagger.getPaths() == null) {
+            return;
+        }
+        for (Map.Entry<String, Path> path : swagger.getPaths().entrySet()) {
+            for (Map.Entry<HttpMethod, Operation> operation : path.getValue().getOperationMap().entrySet()) {
+                Map<String, Response> responses = operation.getValue().getResponses();
+                if (responses == null) {
+                    continue;
+                }
+                JsonNode raw = tree.path("paths").path(path.getKey())
+                        .path(operation.getKey().name().toLowerCase(Locale.ENGLISH)).path("responses");
+                for (Map.Entry<String, Response> response : responses.entrySet()) {
+                    if (response.getValue() != null && response.getValue().getSchema() != null) {
+                        property(response.getValue().getSchema(), raw.path(response.getKey()).path("schema"));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param model array definition
+     * @return its {@code minItems}, or null if it has none
+     */
+    public static Integer minItems(ArrayModel model) {
+        return extension(model, MIN_ITEMS);
+    }
+
+    /**
+     * @param model array definition
+     * @return its {@code maxItems}, or null if it has none
+     */
+    public static Integer maxItems(ArrayModel model) {
+        return extension(model, MAX_ITEMS);
+    }
+
+    private static Integer extension(ArrayModel model, String name) {
+        Object value = model.getVendorExtensions() == null ? null : model.getVendorExtensions().get(name);
+        return value instanceof Integer ? (Integer) value : null;
+    }
+
+    private static void model(Model model, JsonNode raw) {
+        if (model == null || raw.isMissingNode()) {
+            return;
+        }
+        if (model instanceof ArrayModel) {
+            ArrayModel array = (ArrayModel) model;
+            if (bound(raw, "minItems") != null) {
+                array.setVendorExtension(MIN_ITEMS, bound(raw, "minItems"));
+            }
+            if (bound(raw, "maxItems") != null) {
+                array.setVendorExtension(MAX_ITEMS, bound(raw, "maxItems"));
+            }
+            if (array.getItems() != null) {
+                property(array.getItems(), raw.path("items"));
+            }
+            return;
+        }
+        if (model instanceof ComposedModel) {
+            List<Model> parts = ((ComposedModel) model).getAllOf();
+            JsonNode rawParts = raw.path("allOf");
+            for (int i = 0; parts != null && i < parts.size() && i < rawParts.size(); i++) {
+                model(parts.get(i), rawParts.get(i));
+            }
+            return;
+        }
+        properties(model.getProperties(), raw);
+    }
+
+    private static void properties(Map<String, Property> properties, JsonNode raw) {
+        if (properties == null) {
+            return;
+        }
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            property(entry.getValue(), raw.path("properties").path(entry.getKey()));
+        }
+    }
+
+    private static void property(Property property, JsonNode raw) {
+        if (property == null || raw.isMissingNode()) {
+            return;
+        }
+        if (property instanceof ArrayProperty) {
+            ArrayProperty array = (ArrayProperty) property;
+            if (array.getMinItems() == null) {
+                array.setMinItems(bound(raw, "minItems"));
+            }
+            if (array.getMaxItems() == null) {
+                array.setMaxItems(bound(raw, "maxItems"));
+            }
+            property(array.getItems(), raw.path("items"));
+        } else if (property instanceof MapProperty) {
+            property(((MapProperty) property).getAdditionalProperties(), raw.path("additionalProperties"));
+        } else if (property instanceof ObjectProperty) {
+            properties(((ObjectProperty) property).getProperties(), raw);
+        }
+    }
+
+    private static Integer bound(JsonNode raw, String name) {
+        JsonNode value = raw.get(name);
+        return value != null && value.canConvertToInt() && value.asInt() >= 0 ? value.asInt() : null;
+    }
+
+    private static JsonNode readTree(String location) throws IOException {
+        byte[] content;
+        if (location.startsWith("http://") || location.startsWith("https://")) {
+            try (InputStream in = new URL(location).openStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                content = out.toByteArray();
+            }
+        } else {
+            content = Files.readAllBytes(Paths.get(location));
+        }
+        String text = new String(content, StandardCharsets.UTF_8);
+        ObjectMapper reader = text.trim().startsWith("{") ? Json.mapper() : Yaml.mapper();
+        return reader.readTree(text);
+    }
+}
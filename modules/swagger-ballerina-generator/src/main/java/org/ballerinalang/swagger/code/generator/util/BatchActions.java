@@ -0,0 +1,170 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.util.Json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves which connector actions get a batch variant. Batch variants are opted into with the {@value #ENABLED}
+ * additional property and take a list of parameter sets, calling the action for each of them from a fork of
+ * {@value #CONCURRENCY} workers. Worker i calls the action for parameter sets i, i + n, i + 2n, ..., so at most n
+ * calls are in flight, and the results are put back in the order of the parameter sets with an error per item.
+ * <p>
+ * Get and head operations get a batch variant by default. The {@value #EXTENSION} vendor extension of an operation
+ * set to false leaves it out, and set to true adds put, delete and options operations, which are idempotent too.
+ */
+public final class BatchActions {
+
+    /**
+     * Additional property enabling batch variants of connector actions.
+     */
+    public static final String ENABLED = "batchActions";
+
+    /**
+     * Additional property holding the number of workers of a batch action, the maximum of concurrent calls.
+     */
+    public static final String CONCURRENCY = "batchConcurrency";
+
+    /**
+     * Additional property listing the workers of a batch action, with their name and first parameter set.
+     */
+    public static final String WORKERS = "batchWorkers";
+
+    /**
+     * Operation vendor extension adding or leaving out the batch variant of that operation.
+     */
+    public static final String EXTENSION = "x-ballerina-batch";
+
+    /**
+     * Operation vendor extension holding the name of the parameter set struct, absent if the operation has no
+     * batch variant.
+     */
+    public static final String PARAMS = "x-ballerina-batch-params";
+
+    private static final int DEFAULT_CONCURRENCY = 8;
+
+    private static final int MAX_CONCURRENCY = 64;
+
+    private static final Set<String> DEFAULT_METHODS = new HashSet<>(Arrays.asList("get", "head"));
+
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList("get", "head", "put",
+            "delete", "options"));
+
+    private BatchActions() {
+    }
+
+    /**
+     * Normalizes the batch related additional properties.
+     *
+     * @param additionalProperties generator additional properties
+     * @return whether batch actions are enabled
+     */
+    public static boolean processOpts(Map<String, Object> additionalProperties) {
+        Object enabled = additionalProperties.get(ENABLED);
+        if (enabled == null || !Boolean.parseBoolean(String.valueOf(enabled).trim())) {
+            additionalProperties.remove(ENABLED);
+            return false;
+        }
+        additionalProperties.put(ENABLED, Boolean.TRUE);
+        Object value = additionalProperties.get(CONCURRENCY);
+        int concurrency = DEFAULT_CONCURRENCY;
+        if (value != null) {
+            try {
+                concurrency = Integer.parseInt(String.valueOf(value).trim());
+            } catch (NumberFormatException e) {
+                concurrency = 0;
+            }
+        }
+        // every worker is written out in every batch action
+        if (concurrency < 1 || concurrency > MAX_CONCURRENCY) {
+            throw new IllegalArgumentException(CONCURRENCY + " should be a whole number from 1 to "
+                    + MAX_CONCURRENCY + ", found " + value);
+        }
+        List<Map<String, Object>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Map<String, Object> worker = new HashMap<>();
+            worker.put("batchWorker", "w" + i);
+            worker.put("batchOffset", i);
+            workers.add(worker);
+        }
+        additionalProperties.put(CONCURRENCY, concurrency);
+        additionalProperties.put(WORKERS, workers);
+        return true;
+    }
+
+    /**
+     * Adds batch variants to the idempotent operations of a connector and checks that they do not clash with other
+     * actions.
+     *
+     * @param operations operations of the connector, with lower case http methods and request paths added
+     */
+    public static void addBatchActions(List<CodegenOperation> operations) {
+        Set<String> nicknames = new HashSet<>();
+        for (CodegenOperation operation : operations) {
+            nicknames.add(operation.nickname);
+        }
+        for (CodegenOperation operation : operations) {
+            if (!hasBatchAction(operation)) {
+                continue;
+            }
+            for (String action : Arrays.asList(operation.nickname + "Batch", operation.nickname + "BatchSlice")) {
+                if (nicknames.contains(action)) {
+                    throw new IllegalArgumentException("Operation " + operation.operationId + " clashes with the "
+                            + action + " action added by " + ENABLED);
+                }
+            }
+            operation.vendorExtensions.put(PARAMS, DefaultCodegen.camelize(operation.nickname) + "BatchParams");
+        }
+    }
+
+    private static boolean hasBatchAction(CodegenOperation operation) {
+        Object config = operation.vendorExtensions.get(EXTENSION);
+        if (config instanceof JsonNode) {
+            config = Json.mapper().convertValue(config, Object.class);
+        }
+        String method = operation.httpMethod;
+        if (config != null && "false".equalsIgnoreCase(String.valueOf(config))) {
+            return false;
+        }
+        if (config != null && !"true".equalsIgnoreCase(String.valueOf(config))) {
+            throw new IllegalArgumentException(EXTENSION + " of " + operation.operationId
+                    + " should be true or false, found " + config);
+        }
+        if (config != null && !IDEMPOTENT_METHODS.contains(method)) {
+            throw new IllegalArgumentException(EXTENSION + " of " + operation.operationId + " is set on a " + method
+                    + " operation, only idempotent operations can be called in batches");
+        }
+        // streamed payloads cannot be sent or read more than once, and calls without parameters are all alike
+        return (config != null || DEFAULT_METHODS.contains(method))
+                && !StreamingPayloads.isStreamingResponse(operation.vendorExtensions)
+                && !operation.vendorExtensions.containsKey(StreamingPayloads.STREAMING_REQUEST)
+                && (operation.bodyParam != null
+                || !((List<?>) operation.vendorExtensions.get(RequestPaths.ACTION_PARAMS)).isEmpty());
+    }
+}
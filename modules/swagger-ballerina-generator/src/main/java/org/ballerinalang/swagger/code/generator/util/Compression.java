@@ -0,0 +1,111 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves the content encodings negotiated by generated code. Compression is off unless the {@value #ALGORITHMS}
+ * additional property lists the encodings in order of preference ("none" also disables it). {@value #THRESHOLD}
+ * holds the UTF-8 payload size in bytes from which services mark their responses for compression. Services only set
+ * Content-Encoding, so it should be enabled for transports which compress payloads according to that header.
+ * Connectors only ask for compressed responses when {@value #CLIENT_DECOMPRESSION} confirms that the HTTP client
+ * transport decodes them, which nothing in the Ballerina 0.8 client connector does by itself.
+ */
+public final class Compression {
+
+    /**
+     * Additional property holding the encodings separated by '|' or spaces, compression is disabled if absent.
+     */
+    public static final String ALGORITHMS = "compression";
+
+    /**
+     * Additional property holding the minimum size in bytes of compressed responses.
+     */
+    public static final String THRESHOLD = "compressionThreshold";
+
+    /**
+     * Additional property set to true when the HTTP client transport decodes compressed responses.
+     */
+    public static final String CLIENT_DECOMPRESSION = "clientDecompression";
+
+    /**
+     * Additional property holding the Accept-Encoding header value of connectors, absent unless compression is
+     * enabled and {@value #CLIENT_DECOMPRESSION} is set.
+     */
+    public static final String ACCEPT_ENCODING = "acceptEncoding";
+
+    /**
+     * Additional property listing the encodings for templates, absent if disabled.
+     */
+    public static final String ENCODINGS = "contentEncodings";
+
+    private static final List<String> SUPPORTED = Arrays.asList("gzip", "deflate");
+
+    private static final int DEFAULT_THRESHOLD = 1024;
+
+    private Compression() {
+    }
+
+    /**
+     * Normalizes the compression additional properties.
+     *
+     * @param additionalProperties generator additional properties
+     * @return whether compression is enabled
+     */
+    public static boolean processOpts(Map<String, Object> additionalProperties) {
+        Object configured = additionalProperties.get(ALGORITHMS);
+        List<String> encodings = new ArrayList<>();
+        if (configured != null && !"none".equalsIgnoreCase(String.valueOf(configured).trim())) {
+            // --additional-properties splits on commas, so several encodings are separated by '|' or spaces
+            for (String encoding : String.valueOf(configured).split("[,|\\s]+")) {
+                String name = encoding.trim().toLowerCase(Locale.ENGLISH);
+                if (!SUPPORTED.contains(name)) {
+                    throw new IllegalArgumentException("Unsupported compression " + encoding + ", expected one of "
+                            + SUPPORTED + " or none");
+                }
+                if (!encodings.contains(name)) {
+                    encodings.add(name);
+                }
+            }
+        }
+        if (encodings.isEmpty()) {
+            additionalProperties.remove(ENCODINGS);
+            additionalProperties.remove(ACCEPT_ENCODING);
+            return false;
+        }
+        Object threshold = additionalProperties.get(THRESHOLD);
+        try {
+            additionalProperties.put(THRESHOLD, threshold == null ? DEFAULT_THRESHOLD
+                    : Integer.parseInt(String.valueOf(threshold).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(THRESHOLD + " should be a number of bytes, found " + threshold);
+        }
+        additionalProperties.put(ENCODINGS, encodings);
+        if (Boolean.parseBoolean(String.valueOf(additionalProperties.get(CLIENT_DECOMPRESSION)).trim())) {
+            additionalProperties.put(ACCEPT_ENCODING, String.join(", ", encodings));
+        } else {
+            additionalProperties.remove(ACCEPT_ENCODING);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.util.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the names a generator had to make up or change while generating, instead of logging every rename as it
+ * happens. Repeated events are counted once, and the collected events are reported as a single summary or as a json
+ * report at the end of a run.
+ */
+public class Diagnostics {
+
+    /**
+     * Additional property holding the diagnostics of a generator, read back once generation is done.
+     */
+    public static final String PROPERTY = "diagnostics";
+
+    private static final int SUMMARY_ENTRIES = 10;
+
+    /**
+     * Kinds of recorded events.
+     */
+    public enum Kind {
+        GENERATED_OPERATION_ID("operations without operationId were named after their path"),
+        RESERVED_OPERATION_ID("operationIds which are reserved words were renamed"),
+        RESERVED_MODEL_NAME("model names which are reserved words were renamed");
+
+        private final String description;
+
+        Kind(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Map<Entry, LongAdder> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Records an event. Arguments are kept as is, so callers need not build messages.
+     *
+     * @param kind        kind of the event
+     * @param subject     name or operation the event is about
+     * @param replacement name used instead
+     */
+    public void record(Kind kind, String subject, String replacement) {
+        entries.computeIfAbsent(new Entry(kind, subject, replacement), e -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return whether no event was recorded
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return a summary of the recorded events, listing the first few of them
+     */
+    public String summary() {
+        List<Entry> sorted = sortedEntries();
+        Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+        for (Entry entry : sorted) {
+            counts.merge(entry.kind, 1, Integer::sum);
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<Kind, Integer> count : counts.entrySet()) {
+            summary.append(count.getValue()).append(' ').append(count.getKey().description).append('\n');
+        }
+        for (int i = 0; i < sorted.size() && i < SUMMARY_ENTRIES; i++) {
+            Entry entry = sorted.get(i);
+            summary.append("  ").append(entry.subject).append(" -> ").append(entry.replacement).append('\n');
+        }
+        if (sorted.size() > SUMMARY_ENTRIES) {
+            summary.append("  and ").append(sorted.size() - SUMMARY_ENTRIES).append(" more\n");
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes the recorded events as json: the number of distinct events per kind and every event with the number
+     * of times it occurred.
+     *
+     * @param file report file
+     * @throws IOException if the report cannot be written
+     */
+    public void writeReport(File file) throws IOException {
+        ObjectNode report = Json.mapper().createObjectNode();
+        ObjectNode counts = report.putObject("counts");
+        for (Kind kind : Kind.values()) {
+            counts.put(kind.name(), 0);
+        }
+        ArrayNode list = report.putArray("diagnostics");
+        for (Entry entry : sortedEntries()) {
+            counts.put(entry.kind.name(), counts.get(entry.kind.name()).asInt() + 1);
+            ObjectNode node = list.addObject();
+            node.put("kind", entry.kind.name());
+            node.put("subject", entry.subject);
+            node.put("replacement", entry.replacement);
+            node.put("occurrences", entries.get(entry).sum());
+        }
+        Json.pretty().writeValue(file, report);
+    }
+
+    private List<Entry> sortedEntries() {
+        List<Entry> sorted = new ArrayList<>(entries.keySet());
+        sorted.sort((a, b) -> {
+            int order = a.kind.compareTo(b.kind);
+            if (order == 0) {
+                order = String.valueOf(a.subject).compareTo(String.valueOf(b.subject));
+            }
+            return order == 0 ? String.valueOf(a.replacement).compareTo(String.valueOf(b.replacement)) : order;
+        });
+        return sorted;
+    }
+
+    private static final class Entry {
+        private final Kind kind;
+        private final String subject;
+        private final String replacement;
+
+        private Entry(Kind kind, String subject, String replacement) {
+            this.kind = kind;
+            this.subject = subject;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return kind == other.kind && Objects.equals(subject, other.subject)
+                    && Objects.equals(replacement, other.replacement);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, subject, replacement);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.util.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the default endpoint options of generated connectors.
+ * Defaults are taken from the {@value #EXTENSION} vendor extension of the definition, which are in turn
+ * overridden by additional properties of the same name given on the command line.
+ * <p>
+ * The Ballerina 0.8.1 {@code http:ClientConnector} only takes the service URI, so the options are limited to what
+ * the generated actions can apply themselves: {@code keepAlive} is sent as the {@code Connection} header. Pool
+ * sizes, timeouts and HTTP/2 belong to the transport configuration of the runtime and are ignored with a warning.
+ */
+public final class EndpointOptions {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointOptions.class);
+
+    /**
+     * Root vendor extension holding a map of option name to default value.
+     */
+    public static final String EXTENSION = "x-ballerina-endpoint";
+
+    /**
+     * Additional property holding the resolved options for templates.
+     */
+    public static final String PROPERTY = "endpointOptions";
+
+    private static final Map<String, Object> BUILT_IN = new LinkedHashMap<>();
+
+    /**
+     * Options of earlier generators which the pinned client connector has no setting for.
+     */
+    private static final List<String> TRANSPORT_OPTIONS = Arrays.asList("maxActiveConnections", "maxIdleConnections",
+            "connectTimeout", "readTimeout", "http2");
+
+    static {
+        BUILT_IN.put("keepAlive", Boolean.TRUE);
+    }
+
+    /**
+     * Resolved option, exposed to templates.
+     */
+    public static class Option {
+        public final String name;
+        public final String type;
+        public final String value;
+
+        Option(String name, String type, String value) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private EndpointOptions() {
+    }
+
+    /**
+     * @param specDefaults         value of the {@value #EXTENSION} vendor extension, may be null
+     * @param additionalProperties generator additional properties
+     * @return options in declaration order with their resolved defaults
+     */
+    public static List<Option> resolve(Object specDefaults, Map<String, Object> additionalProperties) {
+        if (specDefaults instanceof JsonNode) {
+            // vendor extensions are kept as parsed json trees
+            specDefaults = Json.mapper().convertValue(specDefaults, Map.class);
+        }
+        if (specDefaults != null && !(specDefaults instanceof Map)) {
+            throw new IllegalArgumentException(EXTENSION + " should be a map of endpoint option to value");
+        }
+        for (String name : TRANSPORT_OPTIONS) {
+            if ((specDefaults != null && ((Map<?, ?>) specDefaults).containsKey(name))
+                    || additionalProperties.containsKey(name)) {
+                LOGGER.warn("Endpoint option " + name + " is not supported by the Ballerina 0.8.1 client connector "
+                        + "and is ignored, set it in the transport configuration of the runtime instead");
+            }
+        }
+        List<Option> options = new ArrayList<>(BUILT_IN.size());
+        for (Map.Entry<String, Object> entry : BUILT_IN.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (specDefaults != null && ((Map<?, ?>) specDefaults).containsKey(name)) {
+                value = ((Map<?, ?>) specDefaults).get(name);
+            }
+            if (additionalProperties.containsKey(name)) {
+                value = additionalProperties.get(name);
+            }
+            boolean flag = entry.getValue() instanceof Boolean;
+            options.add(new Option(name, flag ? "boolean" : "int", flag ? toBoolean(name, value) : toInt(name, value)));
+        }
+        return options;
+    }
+
+    private static String toBoolean(String name, Object value) {
+        String text = String.valueOf(value).trim();
+        if (!"true".equalsIgnoreCase(text) && !"false".equalsIgnoreCase(text)) {
+            throw new IllegalArgumentException("Endpoint option " + name + " should be true or false, found " + text);
+        }
+        return text.toLowerCase();
+    }
+
+    private static String toInt(String name, Object value) {
+        String text = String.valueOf(value).trim();
+        try {
+            return String.valueOf(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Endpoint option " + name + " should be an integer, found " + text);
+        }
+    }
+}
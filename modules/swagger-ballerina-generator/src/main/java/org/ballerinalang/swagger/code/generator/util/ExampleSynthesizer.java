@@ -0,0 +1,377 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.AbstractNumericProperty;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.BooleanProperty;
+import io.swagger.models.properties.DateProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.DecimalProperty;
+import io.swagger.models.properties.EmailProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.models.properties.UUIDProperty;
+import io.swagger.util.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Synthesizes sample response payloads from response schemas, for operations whose definition has no examples.
+ * <p>
+ * Values only depend on the seed and the location of the value within its definition, so the output is the
+ * same for every run with the same seed, whatever the order operations are processed in. Expansions of
+ * definitions are memoized per remaining depth: a definition referenced from many operations is expanded once,
+ * and cyclic references unroll until the depth bound is reached, after which the referencing field is left out.
+ * Operations are processed in parallel.
+ */
+public class ExampleSynthesizer {
+
+    /**
+     * Additional property holding the seed of synthesized values.
+     */
+    public static final String SEED = "exampleSeed";
+
+    /**
+     * Additional property holding the maximum number of nested definitions expanded.
+     */
+    public static final String MAX_DEPTH = "exampleDepth";
+
+    /**
+     * Additional property holding the number of items of synthesized arrays.
+     */
+    public static final String ARRAY_SIZE = "exampleArraySize";
+
+    private static final int DEFAULT_MAX_DEPTH = 4;
+
+    private static final int DEFAULT_ARRAY_SIZE = 2;
+
+    /**
+     * Upper limit of the items synthesized for an array whatever its {@code minItems}, since synthesis runs on
+     * pool threads whose allocations the guardrails budget does not count.
+     */
+    static final int MAX_ARRAY_SIZE = 64;
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final Map<String, Model> definitions;
+    private final long seed;
+    private final int maxDepth;
+    private final int arraySize;
+    private final Map<String, JsonNode> expansions = new ConcurrentHashMap<>();
+
+    private final Guardrails guardrails = Guardrails.current();
+
+    public ExampleSynthesizer(Map<String, Model> definitions, Map<String, Object> additionalProperties) {
+        this.definitions = definitions == null ? Collections.<String, Model>emptyMap() : definitions;
+        this.seed = toLong(SEED, additionalProperties.get(SEED), 0);
+        this.maxDepth = (int) toLong(MAX_DEPTH, additionalProperties.get(MAX_DEPTH), DEFAULT_MAX_DEPTH);
+        this.arraySize = (int) toLong(ARRAY_SIZE, additionalProperties.get(ARRAY_SIZE), DEFAULT_ARRAY_SIZE);
+    }
+
+    /**
+     * Synthesizes the payloads of all operations which have a success response schema but no example.
+     *
+     * @param swagger definition to process
+     * @return payloads keyed by {@link #operationKey(String, String)}
+     */
+    public Map<String, JsonNode> synthesize(Swagger swagger) {
+        Map<String, JsonNode> payloads = new ConcurrentHashMap<>();
+        if (swagger.getPaths() == null) {
+            return payloads;
+        }
+        List<Object[]> operations = new ArrayList<>();
+        for (Map.Entry<String, Path> path : swagger.getPaths().entrySet()) {
+            for (Map.Entry<HttpMethod, Operation> operation : path.getValue().getOperationMap().entrySet()) {
+                operations.add(new Object[]{operationKey(operation.getKey().name(), path.getKey()),
+                        operation.getValue()});
+            }
+        }
+        operations.parallelStream().forEach(entry -> {
+            Guardrails.checkpoint(guardrails, "example of operation " + entry[0]);
+            Response response = successResponse((Operation) entry[1]);
+            if (response != null && response.getSchema() != null
+                    && (response.getExamples() == null || response.getExamples().isEmpty())) {
+                JsonNode payload = property(response.getSchema(), (String) entry[0], 0, 0);
+                if (payload != null) {
+                    payloads.put((String) entry[0], payload);
+                }
+            }
+        });
+        return payloads;
+    }
+
+    /**
+     * @param httpMethod http method, in any case
+     * @param path       path template of the operation
+     * @return key of an operation within the synthesized payloads
+     */
+    public static String operationKey(String httpMethod, String path) {
+        return httpMethod.toUpperCase() + " " + path;
+    }
+
+    private static Response successResponse(Operation operation) {
+        if (operation.getResponses() == null) {
+            return null;
+        }
+        Response response = operation.getResponses().get("200");
+        if (response != null) {
+            return response;
+        }
+        for (Map.Entry<String, Response> entry : operation.getResponses().entrySet()) {
+            if (entry.getKey().startsWith("2")) {
+                return entry.getValue();
+            }
+        }
+        // operations which only declare a default response reply with it, as DefaultCodegen assumes
+        return operation.getResponses().get("default");
+    }
+
+    /**
+     * Expansion of a definition at the given nesting depth, memoized since the result only depends on the depth
+     * and on the variant, which tells apart the items of an array.
+     */
+    private JsonNode definition(String name, int depth, int variant) {
+        if (depth >= maxDepth) {
+            return null;
+        }
+        String key = name + "@" + depth + "#" + variant;
+        JsonNode cached = expansions.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Guardrails.checkpoint(guardrails, "example of definition " + name);
+        Model model = definitions.get(name);
+        JsonNode expansion = model == null ? null : model(model, name + "#" + variant, depth + 1, variant);
+        if (expansion == null) {
+            return null;
+        }
+        // racing threads compute equal values, keep whichever came first
+        JsonNode previous = expansions.putIfAbsent(key, expansion);
+        return previous == null ? expansion : previous;
+    }
+
+    private JsonNode model(Model model, String location, int depth, int variant) {
+        if (model.getExample() != null) {
+            return Json.mapper().valueToTree(model.getExample());
+        }
+        if (model instanceof RefModel) {
+            return definition(((RefModel) model).getSimpleRef(), depth - 1, variant);
+        }
+        if (model instanceof ArrayModel) {
+            ArrayModel array = (ArrayModel) model;
+            return array(array.getItems(), ArrayBounds.minItems(array), ArrayBounds.maxItems(array), location,
+                    depth);
+        }
+        if (model instanceof ComposedModel) {
+            ObjectNode merged = NODES.objectNode();
+            for (Model part : ((ComposedModel) model).getAllOf()) {
+                JsonNode node = model(part, location, depth, variant);
+                if (node instanceof ObjectNode) {
+                    merged.setAll((ObjectNode) node);
+                }
+            }
+            return merged;
+        }
+        if (model instanceof ModelImpl) {
+            ModelImpl impl = (ModelImpl) model;
+            if (impl.getEnum() != null && !impl.getEnum().isEmpty()) {
+                return NODES.textNode(pick(impl.getEnum(), location));
+            }
+            if (impl.getType() != null && !"object".equals(impl.getType())) {
+                return primitive(impl.getType(), impl.getFormat(), location);
+            }
+            return object(impl.getProperties(), location, depth, variant);
+        }
+        return object(model.getProperties(), location, depth, variant);
+    }
+
+    private JsonNode object(Map<String, Property> properties, String location, int depth, int variant) {
+        ObjectNode node = NODES.objectNode();
+        if (properties == null) {
+            return node;
+        }
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            JsonNode value = property(entry.getValue(), location + "." + entry.getKey(), depth, variant);
+            // fields cut at the depth bound are left out
+            if (value != null) {
+                node.set(entry.getKey(), value);
+            }
+        }
+        return node;
+    }
+
+    private JsonNode property(Property property, String location, int depth, int variant) {
+        if (property.getExample() != null) {
+            return Json.mapper().valueToTree(property.getExample());
+        }
+        if (property instanceof RefProperty) {
+            return definition(((RefProperty) property).getSimpleRef(), depth, variant);
+        }
+        if (property instanceof ArrayProperty) {
+            ArrayProperty array = (ArrayProperty) property;
+            return array(array.getItems(), array.getMinItems(), array.getMaxItems(), location, depth);
+        }
+        if (property instanceof MapProperty) {
+            ObjectNode node = NODES.objectNode();
+            JsonNode value = property(((MapProperty) property).getAdditionalProperties(), location + "{}", depth,
+                    variant);
+            if (value != null) {
+                node.set("key", value);
+            }
+            return node;
+        }
+        if (property instanceof ObjectProperty) {
+            return object(((ObjectProperty) property).getProperties(), location, depth, variant);
+        }
+        if (property instanceof StringProperty && ((StringProperty) property).getEnum() != null
+                && !((StringProperty) property).getEnum().isEmpty()) {
+            return NODES.textNode(pick(((StringProperty) property).getEnum(), location));
+        }
+        if (property instanceof StringProperty && !(property instanceof EmailProperty)
+                && !(property instanceof UUIDProperty)) {
+            StringProperty string = (StringProperty) property;
+            return NODES.textNode(text(location, string.getMinLength(), string.getMaxLength()));
+        }
+        if (property instanceof AbstractNumericProperty) {
+            AbstractNumericProperty number = (AbstractNumericProperty) property;
+            double min = number.getMinimum() == null ? 0 : number.getMinimum();
+            double max = number.getMaximum() == null ? min + 1000 : number.getMaximum();
+            double value = min + random(location).nextDouble() * (max - min);
+            if (property instanceof DecimalProperty || "number".equals(property.getType())) {
+                return NODES.numberNode(Math.round(value * 100) / 100.0);
+            }
+            return NODES.numberNode((long) Math.floor(value));
+        }
+        if (property instanceof BooleanProperty) {
+            return NODES.booleanNode(random(location).nextBoolean());
+        }
+        if (property instanceof DateProperty) {
+            return primitive("string", "date", location);
+        }
+        if (property instanceof DateTimeProperty) {
+            return primitive("string", "date-time", location);
+        }
+        return primitive(property.getType(), property.getFormat(), location);
+    }
+
+    private JsonNode array(Property items, Integer minItems, Integer maxItems, String location, int depth) {
+        ArrayNode node = NODES.arrayNode();
+        if (items == null) {
+            return node;
+        }
+        int size = arraySize;
+        if (minItems != null) {
+            size = Math.max(size, Math.min(minItems, MAX_ARRAY_SIZE));
+        }
+        if (maxItems != null) {
+            size = Math.min(size, maxItems);
+        }
+        for (int i = 0; i < size; i++) {
+            JsonNode item = property(items, location + "[" + i + "]", depth, i);
+            if (item == null) {
+                break;
+            }
+            node.add(item);
+        }
+        return node;
+    }
+
+    private JsonNode primitive(String type, String format, String location) {
+        Random random = random(location);
+        if ("integer".equals(type)) {
+            return NODES.numberNode(random.nextInt(1000));
+        }
+        if ("number".equals(type)) {
+            return NODES.numberNode(random.nextInt(100000) / 100.0);
+        }
+        if ("boolean".equals(type)) {
+            return NODES.booleanNode(random.nextBoolean());
+        }
+        if ("date".equals(format)) {
+            return NODES.textNode(String.format("2017-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        }
+        if ("date-time".equals(format)) {
+            return NODES.textNode(String.format("2017-%02d-%02dT%02d:%02d:00Z", 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60)));
+        }
+        if ("email".equals(format)) {
+            return NODES.textNode("user" + random.nextInt(1000) + "@example.com");
+        }
+        if ("uuid".equals(format)) {
+            return NODES.textNode(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+        return NODES.textNode(text(location, null, null));
+    }
+
+    private String text(String location, Integer minLength, Integer maxLength) {
+        int dot = location.lastIndexOf('.');
+        String name = location.substring(dot + 1).replaceAll("[^A-Za-z0-9]", "");
+        StringBuilder text = new StringBuilder(name.isEmpty() ? "value" : name)
+                .append('-').append(random(location).nextInt(1000));
+        while (minLength != null && text.length() < minLength) {
+            text.append('x');
+        }
+        if (maxLength != null && text.length() > maxLength) {
+            text.setLength(maxLength);
+        }
+        return text.toString();
+    }
+
+    private String pick(List<String> values, String location) {
+        return values.get(random(location).nextInt(values.size()));
+    }
+
+    private Random random(String location) {
+        return new Random(seed * 31 + location.hashCode());
+    }
+
+    private static long toLong(String name, Object value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " should be a whole number, found " + value);
+        }
+    }
+}
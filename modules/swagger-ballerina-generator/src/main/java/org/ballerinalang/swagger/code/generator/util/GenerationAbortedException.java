@@ -0,0 +1,50 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+/**
+ * Thrown at a {@link Guardrails} checkpoint when a run is cancelled or goes over one of its budgets.
+ */
+public class GenerationAbortedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String subject;
+
+    private final boolean cancelled;
+
+    GenerationAbortedException(String subject, String reason, boolean cancelled) {
+        super("Generation aborted while processing " + subject + ": " + reason);
+        this.subject = subject;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * @return what was being processed when the run was aborted, e.g. an operation, a definition or a file
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return whether the run was cancelled, as opposed to going over a budget
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
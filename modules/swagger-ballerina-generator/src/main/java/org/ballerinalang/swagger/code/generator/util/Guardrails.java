@@ -0,0 +1,191 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time and memory budget of one generation run, checked cooperatively. The pipeline calls {@link #checkpoint(String)}
+ * before every path, operation, definition and generated file, naming what it is about to process, and a run which
+ * was cancelled or went over its deadline, allocation or output budget stops there with a
+ * {@link GenerationAbortedException} naming it.
+ * <p>
+ * A budget is entered on the thread which runs the generation, which makes it the budget of every checkpoint on that
+ * thread. Work the run hands to other threads checks the budget it captured with {@link #current()}. Allocations are
+ * the bytes allocated by the generating thread since the run started, which covers the memory churn of building
+ * models and rendering templates but not the parallel parsing and checks done by pool threads. A limit of zero or
+ * less leaves that budget unchecked.
+ */
+public final class Guardrails {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Guardrails.class);
+
+    private static final ThreadLocal<Guardrails> CURRENT = new ThreadLocal<>();
+
+    private static final long MB = 1024 * 1024;
+
+    private final long timeLimitMillis;
+
+    private final long maxAllocatedBytes;
+
+    private final long maxOutputBytes;
+
+    private final AtomicLong outputBytes = new AtomicLong();
+
+    private volatile boolean cancelled;
+
+    private volatile Thread owner;
+
+    private long deadline;
+
+    private long allocatedAtStart;
+
+    /**
+     * @param timeLimitMillis   wall time the run may take
+     * @param maxAllocatedBytes bytes the generating thread may allocate
+     * @param maxOutputBytes    bytes of generated files the run may write
+     */
+    public Guardrails(long timeLimitMillis, long maxAllocatedBytes, long maxOutputBytes) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    /**
+     * @return the budget entered on the current thread, or null if the thread does not run a generation
+     */
+    public static Guardrails current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks the budget entered on the current thread, if any.
+     *
+     * @param subject what is about to be processed, e.g. "operation GET /pets" or "definition Pet"
+     * @throws GenerationAbortedException if the run was cancelled or went over its budget
+     */
+    public static void checkpoint(String subject) {
+        Guardrails guardrails = CURRENT.get();
+        if (guardrails != null) {
+            guardrails.check(subject);
+        }
+    }
+
+    /**
+     * Checks a budget captured with {@link #current()}, from a thread working for the run.
+     *
+     * @param guardrails budget of the run, or null if it has none
+     * @param subject    what is about to be processed
+     * @throws GenerationAbortedException if the run was cancelled or went over its budget
+     */
+    public static void checkpoint(Guardrails guardrails, String subject) {
+        if (guardrails != null) {
+            guardrails.check(subject);
+        }
+    }
+
+    /**
+     * Starts the clock and makes this the budget of the current thread, until {@link #exit()}.
+     */
+    public void enter() {
+        owner = Thread.currentThread();
+        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        allocatedAtStart = allocatedBytes(owner);
+        if (maxAllocatedBytes > 0 && allocatedAtStart < 0) {
+            LOGGER.warn("This JVM does not measure thread allocations, the allocation budget is not checked");
+        }
+        CURRENT.set(this);
+    }
+
+    /**
+     * Removes this budget from the current thread.
+     */
+    public void exit() {
+        CURRENT.remove();
+        owner = null;
+    }
+
+    /**
+     * Cancels the run, which stops at its next checkpoint. May be called from any thread, also before the run
+     * started.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @param subject what is about to be processed
+     * @throws GenerationAbortedException if the run was cancelled or went over its budget
+     */
+    public void check(String subject) {
+        Thread thread = owner;
+        // interrupting the generating thread, as Future#cancel(true) does, cancels the run too
+        if (cancelled || (thread != null && thread.isInterrupted()) || Thread.currentThread().isInterrupted()) {
+            throw new GenerationAbortedException(subject, "the run was cancelled", true);
+        }
+        if (timeLimitMillis > 0 && System.nanoTime() - deadline > 0) {
+            throw new GenerationAbortedException(subject, "the run took longer than its time limit of "
+                    + timeLimitMillis + " ms", false);
+        }
+        if (maxAllocatedBytes > 0 && thread != null && allocatedAtStart >= 0) {
+            long allocated = allocatedBytes(thread) - allocatedAtStart;
+            if (allocated > maxAllocatedBytes) {
+                throw new GenerationAbortedException(subject, "the run allocated " + size(allocated)
+                        + ", over its allocation budget of " + size(maxAllocatedBytes), false);
+            }
+        }
+    }
+
+    /**
+     * Counts a generated file against the output budget and checks the budget.
+     *
+     * @param file  name of the file about to be written
+     * @param bytes size of the file
+     * @throws GenerationAbortedException if the run was cancelled or went over its budget
+     */
+    public void addOutput(String file, long bytes) {
+        long written = outputBytes.addAndGet(bytes);
+        if (maxOutputBytes > 0 && written > maxOutputBytes) {
+            throw new GenerationAbortedException("file " + file, "the output would grow to " + size(written)
+                    + ", over its output budget of " + size(maxOutputBytes), false);
+        }
+        check("file " + file);
+    }
+
+    private static long allocatedBytes(Thread thread) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+                return allocations.getThreadAllocatedBytes(thread.getId());
+            }
+        }
+        return -1;
+    }
+
+    private static String size(long bytes) {
+        return bytes < MB ? bytes + " bytes" : String.format(Locale.ROOT, "%.2f MB", (double) bytes / MB);
+    }
+}
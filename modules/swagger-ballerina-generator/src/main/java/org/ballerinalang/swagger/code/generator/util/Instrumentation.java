@@ -0,0 +1,111 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenOperation;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves the instrumentation of generated resources and actions. When the {@value #ENABLED} additional property
+ * is set, every resource and action records its request count, in flight requests, errors and a latency histogram,
+ * labelled with the operationId, tag and HTTP method of the operation. Services expose these metrics in the
+ * Prometheus text format on {@value #DEFAULT_PATH}, connectors through a {@value #OPERATION} action.
+ */
+public final class Instrumentation {
+
+    /**
+     * Additional property enabling instrumentation, set by the --instrument option.
+     */
+    public static final String ENABLED = "instrument";
+
+    /**
+     * Additional property holding the path of the metrics resource of services.
+     */
+    public static final String PATH = "metricsPath";
+
+    /**
+     * Operation vendor extension holding the metric labels of the operation, escaped for a ballerina string.
+     */
+    public static final String LABELS = "x-ballerina-metric-labels";
+
+    /**
+     * Name of the resource or action exposing the metrics.
+     */
+    public static final String OPERATION = "metrics";
+
+    private static final String DEFAULT_PATH = "/metrics";
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Normalizes the instrumentation additional properties.
+     *
+     * @param additionalProperties generator additional properties
+     * @return whether instrumentation is enabled
+     */
+    public static boolean processOpts(Map<String, Object> additionalProperties) {
+        Object enabled = additionalProperties.get(ENABLED);
+        if (enabled == null || !Boolean.parseBoolean(String.valueOf(enabled).trim())) {
+            additionalProperties.remove(ENABLED);
+            return false;
+        }
+        additionalProperties.put(ENABLED, Boolean.TRUE);
+        Object path = additionalProperties.get(PATH);
+        String metricsPath = path == null ? DEFAULT_PATH : String.valueOf(path).trim();
+        if (!metricsPath.startsWith("/") || metricsPath.contains("{")) {
+            throw new IllegalArgumentException(PATH + " should be a path without parameters, found " + path);
+        }
+        additionalProperties.put(PATH, metricsPath);
+        return true;
+    }
+
+    /**
+     * Labels the operations of a service or connector and checks that the metrics resource or action does not
+     * clash with them.
+     *
+     * @param operations           operations of the service or connector
+     * @param additionalProperties generator additional properties, after {@link #processOpts(Map)}
+     */
+    public static void addLabels(List<CodegenOperation> operations, Map<String, Object> additionalProperties) {
+        Object metricsPath = additionalProperties.get(PATH);
+        for (CodegenOperation operation : operations) {
+            if (OPERATION.equals(operation.nickname)) {
+                throw new IllegalArgumentException("Operation " + operation.operationId + " clashes with the "
+                        + OPERATION + " resource added by instrumentation");
+            }
+            String method = operation.httpMethod.toUpperCase(Locale.ENGLISH);
+            if ("GET".equals(method) && operation.path.equals(metricsPath)) {
+                throw new IllegalArgumentException("Operation " + operation.operationId + " clashes with the "
+                        + "metrics resource at " + metricsPath + ", choose another " + PATH);
+            }
+            operation.vendorExtensions.put(LABELS, "operationId=\\\"" + escape(operation.operationId)
+                    + "\\\",tag=\\\"" + escape(operation.baseName) + "\\\",method=\\\"" + method + "\\\"");
+        }
+    }
+
+    /**
+     * Label values are emitted inside a ballerina string literal, so quotes and backslashes are escaped twice.
+     */
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\\\\\").replace("\"", "\\\\\\\"");
+    }
+}
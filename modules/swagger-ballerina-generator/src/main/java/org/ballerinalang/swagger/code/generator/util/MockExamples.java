@@ -0,0 +1,112 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.util.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the json examples of the operations of a mock service into a single document, written next to
+ * the service and parsed once when the service starts. Resources reply with their entry of that document
+ * instead of evaluating an inline json literal per request.
+ */
+public final class MockExamples {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockExamples.class);
+
+    /**
+     * Suffix of the examples file of a service, appended to the api file name.
+     */
+    public static final String FILE_SUFFIX = "-examples.json";
+
+    /**
+     * Operation vendor extension holding the key of the operation's example, absent if it has none.
+     */
+    public static final String KEY = "x-ballerina-example-key";
+
+    /**
+     * Bundle entry holding the serialized examples document.
+     */
+    public static final String DOCUMENT = "examplesJson";
+
+    /**
+     * Bundle entry holding the path of the examples file, relative to the ballerina program directory.
+     */
+    public static final String PATH = "examplesPath";
+
+    private MockExamples() {
+    }
+
+    /**
+     * Collects the synthesized payload, or else the first json example, of each operation of a service into
+     * the operations bundle.
+     *
+     * @param objs        operations bundle of a service
+     * @param operations  operations of the service
+     * @param synthesized payloads synthesized from response schemas, which take precedence
+     * @param examplePath path of the examples file relative to the ballerina program directory
+     */
+    public static void collect(Map<String, Object> objs, List<CodegenOperation> operations,
+                               Map<String, JsonNode> synthesized, String examplePath) {
+        Map<String, JsonNode> examples = new LinkedHashMap<>();
+        for (CodegenOperation operation : operations) {
+            JsonNode example = synthesized.get(ExampleSynthesizer.operationKey(operation.httpMethod, operation.path));
+            if (example == null) {
+                example = firstJsonExample(operation);
+            }
+            if (example != null) {
+                examples.put(operation.nickname, example);
+                operation.vendorExtensions.put(KEY, operation.nickname);
+            }
+        }
+        try {
+            objs.put(DOCUMENT, Json.mapper().writeValueAsString(examples));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize examples of " + examplePath, e);
+        }
+        objs.put(PATH, examplePath);
+    }
+
+    private static JsonNode firstJsonExample(CodegenOperation operation) {
+        if (operation.examples == null) {
+            return null;
+        }
+        for (Map<String, String> example : operation.examples) {
+            String contentType = example.get("contentType");
+            if (contentType != null && !contentType.toLowerCase().contains("json")) {
+                continue;
+            }
+            try {
+                return Json.mapper().readTree(example.get("example"));
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring example of " + operation.operationId + " which is not valid json. "
+                        + e.getMessage());
+            }
+        }
+        return null;
+    }
+}
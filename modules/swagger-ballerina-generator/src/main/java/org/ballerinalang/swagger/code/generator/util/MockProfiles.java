@@ -0,0 +1,221 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.util.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Performance profile of a mock service: latency distribution, concurrency and rate limits and error injection,
+ * globally and per operation. The resolved profile is written to a json file which the mock service reads when it
+ * starts, so it can be tuned per run without regenerating the service.
+ * <p>
+ * Profiles are merged from, in increasing precedence, built in defaults (no latency, no limits, no errors), the
+ * {@value #EXTENSION} vendor extension at the root and on operations, and the profile file given with the
+ * {@value #FILE} additional property. Both the extension and the file use the same settings:
+ * <pre>
+ * {"latency": {"type": "fixed", "ms": 20}
+ *          | {"type": "uniform", "min": 10, "max": 50}
+ *          | {"type": "percentiles", "p50": 20, "p90": 80, "p99": 200, "max": 500},
+ *  "maxConcurrency": 100, "rateLimit": 1000, "errorRate": 0.01, "errorStatus": 503}
+ * </pre>
+ * The file holds the service wide settings under "default" and per resource settings under "operations".
+ */
+public class MockProfiles {
+
+    /**
+     * Additional property holding the path of a profile file.
+     */
+    public static final String FILE = "mockProfile";
+
+    /**
+     * Root and operation vendor extension holding profile settings.
+     */
+    public static final String EXTENSION = "x-ballerina-mock-profile";
+
+    /**
+     * Additional property holding the resolved profile document.
+     */
+    public static final String DOCUMENT = "mockProfileJson";
+
+    /**
+     * Additional property holding the path of the profile file relative to the ballerina program directory.
+     */
+    public static final String PATH = "mockProfilePath";
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final ObjectNode defaults;
+    private final JsonNode fileOperations;
+    private final Map<String, JsonNode> operations = new TreeMap<>();
+
+    /**
+     * @param rootExtension value of the root {@value #EXTENSION} vendor extension, may be null
+     * @param profileFile   path of the profile file, may be null
+     * @throws IOException if the profile file cannot be read
+     */
+    public MockProfiles(Object rootExtension, String profileFile) throws IOException {
+        JsonNode file = profileFile == null ? NODES.objectNode() : Json.mapper().readTree(new File(profileFile));
+        ObjectNode settings = NODES.objectNode();
+        settings.set("latency", latency("fixed", 0));
+        settings.put("maxConcurrency", 0);
+        settings.put("rateLimit", 0);
+        settings.put("errorRate", 0.0);
+        settings.put("errorStatus", 500);
+        merge(settings, toNode(rootExtension));
+        merge(settings, file.get("default"));
+        defaults = validate("default", settings);
+        fileOperations = file.get("operations");
+    }
+
+    /**
+     * Resolves the settings of an operation which has its own profile.
+     *
+     * @param operation operation to process
+     */
+    public synchronized void addOperation(CodegenOperation operation) {
+        JsonNode override = null;
+        if (fileOperations != null) {
+            // operations are named after their resource or their operationId, whose case may differ
+            Iterator<Map.Entry<String, JsonNode>> fields = fileOperations.fields();
+            while (override == null && fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().equalsIgnoreCase(operation.nickname)
+                        || field.getKey().equalsIgnoreCase(operation.operationId)) {
+                    override = field.getValue();
+                }
+            }
+        }
+        if (override == null) {
+            override = toNode(operation.vendorExtensions.get(EXTENSION));
+        }
+        if (override != null) {
+            ObjectNode settings = defaults.deepCopy();
+            merge(settings, override);
+            operations.put(operation.nickname, validate(operation.nickname, settings));
+        }
+    }
+
+    /**
+     * @return the profile document, as written to the profile file
+     */
+    @Override
+    public synchronized String toString() {
+        ObjectNode document = NODES.objectNode();
+        document.set("default", defaults);
+        document.set("operations", NODES.objectNode().setAll(operations));
+        try {
+            return Json.pretty().writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize mock profile", e);
+        }
+    }
+
+    private static ObjectNode latency(String type, int ms) {
+        ObjectNode latency = NODES.objectNode();
+        latency.put("type", type);
+        latency.put("ms", ms);
+        return latency;
+    }
+
+    private static JsonNode toNode(Object value) {
+        return value == null ? null : Json.mapper().valueToTree(value);
+    }
+
+    private static void merge(ObjectNode target, JsonNode source) {
+        if (source == null || source.isNull()) {
+            return;
+        }
+        if (!source.isObject()) {
+            throw new IllegalArgumentException("Mock profile settings should be an object, found " + source);
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            target.set(field.getKey(), field.getValue());
+        }
+    }
+
+    /**
+     * Checks the settings and completes the latency distribution, so that generated code needs no defaults.
+     */
+    private static ObjectNode validate(String name, ObjectNode settings) {
+        JsonNode latency = settings.get("latency");
+        if (latency == null || !latency.isObject()) {
+            throw new IllegalArgumentException("Latency of mock profile " + name + " should be an object");
+        }
+        ObjectNode resolved = NODES.objectNode();
+        String type = latency.path("type").asText("fixed");
+        resolved.put("type", type);
+        switch (type) {
+            case "fixed":
+                resolved.put("ms", nonNegative(name, latency, "ms", 0));
+                break;
+            case "uniform":
+                long min = nonNegative(name, latency, "min", 0);
+                resolved.put("min", min);
+                resolved.put("max", Math.max(min, nonNegative(name, latency, "max", min)));
+                break;
+            case "percentiles":
+                long p50 = nonNegative(name, latency, "p50", 0);
+                long p90 = Math.max(p50, nonNegative(name, latency, "p90", p50));
+                long p99 = Math.max(p90, nonNegative(name, latency, "p99", p90));
+                resolved.put("p50", p50);
+                resolved.put("p90", p90);
+                resolved.put("p99", p99);
+                resolved.put("max", Math.max(p99, nonNegative(name, latency, "max", p99)));
+                break;
+            default:
+                throw new IllegalArgumentException("Latency type of mock profile " + name + " should be one of "
+                        + "fixed, uniform or percentiles, found " + type);
+        }
+        settings.set("latency", resolved);
+        settings.put("maxConcurrency", nonNegative(name, settings, "maxConcurrency", 0));
+        settings.put("rateLimit", nonNegative(name, settings, "rateLimit", 0));
+        double errorRate = settings.path("errorRate").asDouble(0);
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate of mock profile " + name + " should be between 0 and 1, "
+                    + "found " + errorRate);
+        }
+        settings.put("errorRate", errorRate);
+        settings.put("errorStatus", nonNegative(name, settings, "errorStatus", 500));
+        return settings;
+    }
+
+    private static long nonNegative(String name, JsonNode node, String field, long defaultValue) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return defaultValue;
+        }
+        if (!value.canConvertToLong() || value.asLong() < 0) {
+            throw new IllegalArgumentException(field + " of mock profile " + name
+                    + " should be a non negative number, found " + value);
+        }
+        return value.asLong();
+    }
+}
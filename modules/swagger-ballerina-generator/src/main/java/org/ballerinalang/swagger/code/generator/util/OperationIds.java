@@ -0,0 +1,69 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.models.Operation;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Names operations without an operationId after their path and method, like DefaultCodegen does, but records the
+ * generated names in the {@link Diagnostics} of the run instead of logging a warning for each of them.
+ */
+public final class OperationIds {
+
+    private OperationIds() {
+    }
+
+    /**
+     * @param codegen     generator naming the operation
+     * @param diagnostics diagnostics of the run
+     * @param operation   operation to name
+     * @param path        path of the operation
+     * @param httpMethod  http method of the operation
+     * @return the operationId of the operation, or one generated from its path and method
+     */
+    public static String getOrGenerate(DefaultCodegen codegen, Diagnostics diagnostics, Operation operation,
+                                       String path, String httpMethod) {
+        String operationId = operation.getOperationId();
+        if (StringUtils.isNotBlank(operationId)) {
+            return operationId;
+        }
+        if (path.contains("?")) {
+            path = path.substring(0, path.indexOf('?'));
+        }
+        String tmpPath = path.replace("{", "").replace("}", "");
+        StringBuilder builder = new StringBuilder();
+        if ("/".equals(tmpPath)) {
+            builder.append("root");
+        }
+        for (String part : (tmpPath + "/" + httpMethod).split("/")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            builder.append(builder.length() == 0 ? Character.toLowerCase(part.charAt(0)) + part.substring(1)
+                    : codegen.initialCaps(part));
+        }
+        operationId = codegen.sanitizeName(builder.toString());
+        diagnostics.record(Diagnostics.Kind.GENERATED_OPERATION_ID,
+                httpMethod.toUpperCase(Locale.ROOT) + " " + path, operationId);
+        return operationId;
+    }
+}
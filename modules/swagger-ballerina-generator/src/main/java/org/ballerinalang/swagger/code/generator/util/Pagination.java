@@ -0,0 +1,345 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.models.Model;
+import io.swagger.models.Response;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.util.Json;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves which connector actions get a pager, which iterates over the results of a paginated list operation and
+ * fetches the next page only once the results of the current one are returned, so callers hold a single page at a
+ * time however many results there are.
+ * <p>
+ * The {@value #EXTENSION} vendor extension of a get operation describes its pagination: a "type" of cursor, offset,
+ * page or link; the query parameter carrying the cursor, offset or page number as "param"; the query parameter
+ * carrying the page size as "limit"; the response field or header holding the next cursor as "next" or
+ * "nextHeader"; and the response field holding the results as "items", unless the response is an array. Set to
+ * false, it leaves the operation out. With the {@value #ENABLED} additional property, the pagination of other get
+ * operations is detected from the names of their query parameters and response fields, and from a Link response
+ * header.
+ */
+public final class Pagination {
+
+    /**
+     * Additional property enabling the detection of paginated operations.
+     */
+    public static final String ENABLED = "pagination";
+
+    /**
+     * Additional property set when a pager follows Link headers, adding the nextLink helper.
+     */
+    public static final String LINKS = "paginationLinks";
+
+    /**
+     * Operation vendor extension describing the pagination of that operation.
+     */
+    public static final String EXTENSION = "x-pagination";
+
+    /**
+     * Operation vendor extension holding the resolved pager of the operation, absent if it has none.
+     */
+    public static final String PAGER = "x-ballerina-pager";
+
+    private static final String LINK_HEADER = "Link";
+
+    private static final List<String> CURSOR_PARAMS = Arrays.asList("cursor", "pageToken", "page_token", "after",
+            "marker", "continuationToken", "continuation_token", "startingAfter", "starting_after");
+
+    private static final List<String> NEXT_FIELDS = Arrays.asList("nextCursor", "next_cursor", "nextPageToken",
+            "next_page_token", "nextMarker", "next_marker", "cursor", "next");
+
+    private static final List<String> OFFSET_PARAMS = Arrays.asList("offset", "skip", "start");
+
+    private static final List<String> PAGE_PARAMS = Arrays.asList("page", "pageNumber", "page_number");
+
+    private static final List<String> LIMIT_PARAMS = Arrays.asList("limit", "pageSize", "page_size", "perPage",
+            "per_page", "size", "count");
+
+    private static final List<String> ITEMS_FIELDS = Arrays.asList("items", "data", "results", "values", "elements",
+            "records", "entries");
+
+    private Pagination() {
+    }
+
+    /**
+     * @param additionalProperties generator additional properties
+     * @return whether paginated operations are detected
+     */
+    public static boolean isEnabled(Map<String, Object> additionalProperties) {
+        return Boolean.parseBoolean(String.valueOf(additionalProperties.get(ENABLED)).trim());
+    }
+
+    /**
+     * Attaches a pager to a paginated get operation.
+     *
+     * @param operation            operation to process
+     * @param response             response the operation returns, as picked by DefaultCodegen#findMethodResponse
+     * @param definitions          definitions of the swagger definition
+     * @param config               generator naming response fields
+     * @param additionalProperties generator additional properties
+     */
+    public static void addPager(CodegenOperation operation, Response response, Map<String, Model> definitions,
+                                DefaultCodegen config, Map<String, Object> additionalProperties) {
+        Object extension = operation.vendorExtensions.get(EXTENSION);
+        if (extension instanceof JsonNode) {
+            extension = Json.mapper().convertValue(extension, Object.class);
+        }
+        if (extension != null && "false".equalsIgnoreCase(String.valueOf(extension))) {
+            return;
+        }
+        Map<?, ?> declared = null;
+        if (extension instanceof Map) {
+            declared = (Map<?, ?>) extension;
+        } else if (extension != null) {
+            throw invalid(operation, "should be false or a map, found " + extension);
+        } else if (!isEnabled(additionalProperties)) {
+            return;
+        }
+        if (!"get".equalsIgnoreCase(operation.httpMethod) || operation.bodyParam != null
+                || operation.returnType == null || StreamingPayloads.isStreamingResponse(operation.vendorExtensions)) {
+            if (declared != null) {
+                throw invalid(operation, "is set on an operation which is not a get operation returning json");
+            }
+            return;
+        }
+        Model wrapper = wrapperModel(response, definitions);
+        Map<String, Object> pager = declared == null ? detect(operation, response, wrapper, config)
+                : declare(operation, declared, wrapper, config);
+        if (pager == null) {
+            return;
+        }
+        if (pager.containsKey("pagerLink")) {
+            additionalProperties.put(LINKS, Boolean.TRUE);
+        }
+        pager.put("pagerName", DefaultCodegen.camelize(operation.nickname) + "Pager");
+        operation.vendorExtensions.put(PAGER, pager);
+    }
+
+    /**
+     * Checks that the actions added for pagers do not clash with the actions of other operations.
+     *
+     * @param operations operations of the connector
+     */
+    public static void checkActions(List<CodegenOperation> operations) {
+        Set<String> nicknames = new HashSet<>();
+        for (CodegenOperation operation : operations) {
+            nicknames.add(operation.nickname);
+        }
+        for (CodegenOperation operation : operations) {
+            if (!operation.vendorExtensions.containsKey(PAGER)) {
+                continue;
+            }
+            for (String action : Arrays.asList(operation.nickname + "Pager", operation.nickname + "Next")) {
+                if (nicknames.contains(action)) {
+                    throw new IllegalArgumentException("Operation " + operation.operationId + " clashes with the "
+                            + action + " action added for its pagination");
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> detect(CodegenOperation operation, Response response, Model wrapper,
+                                              DefaultCodegen config) {
+        Map<String, Object> pager = items(operation, wrapper, null, config);
+        if (pager == null) {
+            return null;
+        }
+        if (response != null && response.getHeaders() != null) {
+            for (String header : response.getHeaders().keySet()) {
+                if (LINK_HEADER.equalsIgnoreCase(header)) {
+                    pager.put("pagerLink", Boolean.TRUE);
+                    return pager;
+                }
+            }
+        }
+        CodegenParameter cursor = queryParam(operation, CURSOR_PARAMS, "string");
+        String next = wrapper == null ? null : field(wrapper, NEXT_FIELDS, StringProperty.class);
+        if (cursor != null && next != null) {
+            pager.put("pagerCursor", cursor(cursor, "page." + config.toVarName(next)));
+            return pager;
+        }
+        CodegenParameter limit = queryParam(operation, LIMIT_PARAMS, "int");
+        CodegenParameter counter = queryParam(operation, OFFSET_PARAMS, "int");
+        if (counter != null) {
+            pager.put("pagerCounter", counter(counter, "pager.pagerItems.length", limit));
+            return pager;
+        }
+        counter = queryParam(operation, PAGE_PARAMS, "int");
+        if (counter != null) {
+            pager.put("pagerCounter", counter(counter, "1", limit));
+            return pager;
+        }
+        return null;
+    }
+
+    private static Map<String, Object> declare(CodegenOperation operation, Map<?, ?> declared, Model wrapper,
+                                               DefaultCodegen config) {
+        Object itemsField = declared.get("items");
+        Map<String, Object> pager = items(operation, wrapper, itemsField == null ? null : itemsField.toString(),
+                config);
+        if (pager == null) {
+            throw invalid(operation, "is set on an operation whose response holds no array of results"
+                    + (itemsField == null ? "" : " in " + itemsField));
+        }
+        String type = String.valueOf(declared.get("type")).toLowerCase(Locale.ENGLISH);
+        if ("link".equals(type)) {
+            pager.put("pagerLink", Boolean.TRUE);
+            return pager;
+        }
+        Object param = declared.get("param");
+        if (param == null) {
+            throw invalid(operation, "should name the query parameter of its " + type + " as param");
+        }
+        Object limit = declared.get("limit");
+        switch (type) {
+            case "cursor":
+                CodegenParameter cursor = queryParam(operation, param.toString(), "string");
+                Object next = declared.get("next");
+                Object nextHeader = declared.get("nextHeader");
+                if (next != null && wrapper != null && wrapper.getProperties() != null
+                        && wrapper.getProperties().get(next.toString()) instanceof StringProperty) {
+                    pager.put("pagerCursor", cursor(cursor, "page." + config.toVarName(next.toString())));
+                } else if (nextHeader != null) {
+                    pager.put("pagerCursor", cursor(cursor, "messages:getHeader(response, \""
+                            + nextHeader.toString().replace("\"", "") + "\")"));
+                } else {
+                    throw invalid(operation, "should name the string response field holding the next cursor as "
+                            + "next, or the response header holding it as nextHeader");
+                }
+                return pager;
+            case "offset":
+                pager.put("pagerCounter", counter(queryParam(operation, param.toString(), "int"),
+                        "pager.pagerItems.length",
+                        limit == null ? null : queryParam(operation, limit.toString(), "int")));
+                return pager;
+            case "page":
+                pager.put("pagerCounter", counter(queryParam(operation, param.toString(), "int"), "1",
+                        limit == null ? null : queryParam(operation, limit.toString(), "int")));
+                return pager;
+            default:
+                throw invalid(operation, "should have a type of cursor, offset, page or link, found "
+                        + declared.get("type"));
+        }
+    }
+
+    /**
+     * Resolves where the results of a page are: the response itself if it is an array, or else an array field of
+     * the response definition.
+     */
+    private static Map<String, Object> items(CodegenOperation operation, Model wrapper, String itemsField,
+                                             DefaultCodegen config) {
+        Map<String, Object> pager = new HashMap<>();
+        if (itemsField == null && operation.returnType.endsWith("[]")) {
+            pager.put("pagerItemType", operation.returnType.substring(0, operation.returnType.length() - 2));
+            pager.put("pagerItemsField", "");
+            return pager;
+        }
+        if (wrapper == null || wrapper.getProperties() == null) {
+            return null;
+        }
+        String field = itemsField;
+        if (field == null) {
+            field = field(wrapper, ITEMS_FIELDS, ArrayProperty.class);
+        }
+        Property items = field == null ? null : wrapper.getProperties().get(field);
+        if (!(items instanceof ArrayProperty) || ((ArrayProperty) items).getItems() == null) {
+            return null;
+        }
+        pager.put("pagerItemType", config.getTypeDeclaration(((ArrayProperty) items).getItems()));
+        pager.put("pagerItemsField", "." + config.toVarName(field));
+        return pager;
+    }
+
+    private static Model wrapperModel(Response response, Map<String, Model> definitions) {
+        if (response == null || !(response.getSchema() instanceof RefProperty) || definitions == null) {
+            return null;
+        }
+        return definitions.get(((RefProperty) response.getSchema()).getSimpleRef());
+    }
+
+    private static String field(Model model, List<String> names, Class<? extends Property> type) {
+        if (model.getProperties() == null) {
+            return null;
+        }
+        for (String name : names) {
+            if (type.isInstance(model.getProperties().get(name))) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static CodegenParameter queryParam(CodegenOperation operation, List<String> names, String type) {
+        for (String name : names) {
+            for (CodegenParameter param : operation.queryParams) {
+                if (name.equals(param.baseName) && type.equals(param.dataType)
+                        && !Boolean.TRUE.equals(param.isContainer)) {
+                    return param;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static CodegenParameter queryParam(CodegenOperation operation, String name, String type) {
+        CodegenParameter param = queryParam(operation, Arrays.asList(name), type);
+        if (param == null) {
+            throw new IllegalArgumentException(EXTENSION + " of " + operation.operationId + " names " + name
+                    + ", which is not a " + type + " query parameter of the operation");
+        }
+        return param;
+    }
+
+    private static Map<String, Object> cursor(CodegenParameter param, String next) {
+        Map<String, Object> cursor = new HashMap<>();
+        cursor.put("cursorParam", param.paramName);
+        cursor.put("cursorNext", next);
+        return cursor;
+    }
+
+    private static Map<String, Object> counter(CodegenParameter param, String step, CodegenParameter limit) {
+        Map<String, Object> counter = new HashMap<>();
+        counter.put("counterParam", param.paramName);
+        counter.put("counterStep", step);
+        if (limit != null) {
+            counter.put("counterLimit", limit.paramName);
+        }
+        return counter;
+    }
+
+    private static IllegalArgumentException invalid(CodegenOperation operation, String problem) {
+        return new IllegalArgumentException(EXTENSION + " of " + operation.operationId + " " + problem);
+    }
+}
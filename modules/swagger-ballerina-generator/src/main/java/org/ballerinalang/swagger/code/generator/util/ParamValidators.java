@@ -0,0 +1,93 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.util.Json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares the parameter validators of a package. Operations which validate the same parameters with the same rules
+ * call a single function, generated once in validators.bal instead of once per operation next to its resource.
+ */
+public class ParamValidators {
+
+    /**
+     * Additional property listing the validator functions, each with its name and validated parameters.
+     */
+    public static final String PROPERTY = "paramValidators";
+
+    private final List<Map<String, Object>> functions = new ArrayList<>();
+    private final Map<String, String> names = new HashMap<>();
+
+    /**
+     * Replaces the parameter validator flag of an operation, set by
+     * {@link RequestValidators#addOperationRules}, with the name of the function it calls.
+     *
+     * @param operation operation to process
+     */
+    public synchronized void share(CodegenOperation operation) {
+        Object validated = operation.vendorExtensions.get(RequestValidators.VALIDATED_PARAMS);
+        if (!(validated instanceof List)) {
+            return;
+        }
+        List<CodegenParameter> params = new ArrayList<>();
+        for (Object param : (List<?>) validated) {
+            params.add((CodegenParameter) param);
+        }
+        String key = key(params);
+        String name = names.get(key);
+        if (name == null) {
+            name = "validate" + operation.nickname + "Params";
+            names.put(key, name);
+            Map<String, Object> function = new LinkedHashMap<>();
+            function.put("name", name);
+            function.put("params", params);
+            functions.add(function);
+        }
+        operation.vendorExtensions.put(RequestValidators.PARAM_VALIDATOR, name);
+    }
+
+    /**
+     * @return the validator functions in the order they were first used, filled while operations are processed
+     */
+    public List<Map<String, Object>> getFunctions() {
+        return functions;
+    }
+
+    private static String key(List<CodegenParameter> params) {
+        StringBuilder key = new StringBuilder();
+        try {
+            for (CodegenParameter param : params) {
+                key.append(param.dataType).append(' ').append(param.paramName).append(' ')
+                        .append(Json.mapper().writeValueAsString(param.vendorExtensions.get(RequestValidators.RULES)))
+                        .append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not compare validation rules", e);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,298 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.RefResponse;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.RefParameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.PropertyBuilder;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.refs.RefFormat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a parsed swagger definition for problems which would otherwise surface deep inside generation, or only
+ * when the generated sources are compiled: unresolved $refs, operationIds which end up as the same resource or
+ * action name, path and query and header parameters of types the generator cannot map, and paths which only
+ * differ in the names of their path parameters. Paths and definitions are checked in parallel and every problem
+ * is reported at once, before any operation or model is built.
+ */
+public class Preflight {
+
+    private static final String DEFINITIONS = "#/definitions/";
+
+    private final DefaultCodegen config;
+
+    /**
+     * @param config generator whose reserved words and type mappings the definition is checked against
+     */
+    public Preflight(DefaultCodegen config) {
+        this.config = config;
+    }
+
+    /**
+     * Checks the definition and fails listing every problem found.
+     *
+     * @param swagger parsed swagger definition
+     * @throws IllegalArgumentException if the definition has problems
+     */
+    public void check(Swagger swagger) {
+        List<String> problems = problems(swagger);
+        if (problems.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Swagger definition has ").append(problems.size())
+                .append(problems.size() == 1 ? " problem:" : " problems:");
+        for (String problem : problems) {
+            message.append("\n  ").append(problem);
+        }
+        throw new IllegalArgumentException(message.toString());
+    }
+
+    /**
+     * @param swagger parsed swagger definition
+     * @return the problems of the definition, sorted by location
+     */
+    public List<String> problems(Swagger swagger) {
+        // getPaths() sorts and copies the paths on every call
+        Map<String, Path> paths = swagger.getPaths() == null ? Collections.<String, Path>emptyMap()
+                : swagger.getPaths();
+        Map<String, Model> definitions = swagger.getDefinitions() == null ? Collections.<String, Model>emptyMap()
+                : swagger.getDefinitions();
+
+        Guardrails guardrails = Guardrails.current();
+        List<String> problems = new ArrayList<>();
+        problems.addAll(paths.entrySet().parallelStream()
+                .flatMap(path -> {
+                    Guardrails.checkpoint(guardrails, "path " + path.getKey());
+                    return checkPath(swagger, path.getKey(), path.getValue()).stream();
+                })
+                .collect(Collectors.toList()));
+        problems.addAll(definitions.entrySet().parallelStream()
+                .flatMap(definition -> {
+                    Guardrails.checkpoint(guardrails, "definition " + definition.getKey());
+                    List<String> found = new ArrayList<>();
+                    checkModel(swagger, "definition " + definition.getKey(), definition.getValue(), found);
+                    return found.stream();
+                })
+                .collect(Collectors.toList()));
+        problems.addAll(checkOperationIds(paths));
+        problems.addAll(checkPathConflicts(paths));
+        Collections.sort(problems);
+        return problems;
+    }
+
+    private List<String> checkPath(Swagger swagger, String path, Path pathItem) {
+        List<String> problems = new ArrayList<>();
+        if (pathItem.getParameters() != null) {
+            for (Parameter parameter : pathItem.getParameters()) {
+                checkParameter(swagger, path, parameter, problems);
+            }
+        }
+        for (Map.Entry<HttpMethod, Operation> operation : pathItem.getOperationMap().entrySet()) {
+            String location = operation.getKey() + " " + path;
+            if (operation.getValue().getParameters() != null) {
+                for (Parameter parameter : operation.getValue().getParameters()) {
+                    checkParameter(swagger, location, parameter, problems);
+                }
+            }
+            if (operation.getValue().getResponses() != null) {
+                for (Map.Entry<String, Response> response : operation.getValue().getResponses().entrySet()) {
+                    checkResponse(swagger, location + " response " + response.getKey(), response.getValue(),
+                            problems);
+                }
+            }
+        }
+        return problems;
+    }
+
+    private void checkParameter(Swagger swagger, String location, Parameter parameter, List<String> problems) {
+        if (parameter == null) {
+            // the parser drops the parameter $refs it cannot resolve, leaving null in their place
+            problems.add(location + ": a parameter $ref could not be resolved");
+            return;
+        }
+        if (parameter instanceof RefParameter) {
+            RefParameter ref = (RefParameter) parameter;
+            if (swagger.getParameters() == null || !swagger.getParameters().containsKey(ref.getSimpleRef())) {
+                problems.add(location + ": parameter $ref " + ref.get$ref() + " is not defined");
+            }
+            return;
+        }
+        String name = location + " parameter " + parameter.getName();
+        if (parameter instanceof BodyParameter) {
+            checkModel(swagger, name, ((BodyParameter) parameter).getSchema(), problems);
+            return;
+        }
+        if (!(parameter instanceof AbstractSerializableParameter)) {
+            return;
+        }
+        String in = parameter.getIn();
+        if (!"path".equals(in) && !"query".equals(in) && !"header".equals(in)) {
+            // form parameters are not part of generated signatures
+            return;
+        }
+        AbstractSerializableParameter<?> serializable = (AbstractSerializableParameter<?>) parameter;
+        Property property = PropertyBuilder.build(serializable.getType(), serializable.getFormat(), null);
+        if (property == null) {
+            problems.add(name + ": type " + serializable.getType() + " is not supported");
+            return;
+        }
+        String type = config.getSwaggerType(property);
+        if (!config.typeMapping().containsKey(type) && !config.languageSpecificPrimitives().contains(type)) {
+            problems.add(name + ": type " + describe(serializable.getType(), serializable.getFormat())
+                    + " is not supported");
+        }
+    }
+
+    private void checkResponse(Swagger swagger, String location, Response response, List<String> problems) {
+        if (response instanceof RefResponse) {
+            RefResponse ref = (RefResponse) response;
+            if (swagger.getResponses() == null || !swagger.getResponses().containsKey(ref.getSimpleRef())) {
+                problems.add(location + ": response $ref " + ref.get$ref() + " is not defined");
+            }
+            return;
+        }
+        checkProperty(swagger, location, response.getSchema(), problems);
+    }
+
+    private void checkModel(Swagger swagger, String location, Model model, List<String> problems) {
+        if (model instanceof RefModel) {
+            RefModel ref = (RefModel) model;
+            checkRef(swagger, location, ref.get$ref(), ref.getRefFormat(), ref.getSimpleRef(), problems);
+        } else if (model instanceof ArrayModel) {
+            checkProperty(swagger, location + "[]", ((ArrayModel) model).getItems(), problems);
+        } else if (model instanceof ComposedModel) {
+            for (Model part : ((ComposedModel) model).getAllOf()) {
+                checkModel(swagger, location, part, problems);
+            }
+        } else if (model != null && model.getProperties() != null) {
+            for (Map.Entry<String, Property> property : model.getProperties().entrySet()) {
+                checkProperty(swagger, location + "." + property.getKey(), property.getValue(), problems);
+            }
+        }
+    }
+
+    private void checkProperty(Swagger swagger, String location, Property property, List<String> problems) {
+        if (property instanceof RefProperty) {
+            RefProperty ref = (RefProperty) property;
+            checkRef(swagger, location, ref.get$ref(), ref.getRefFormat(), ref.getSimpleRef(), problems);
+        } else if (property instanceof ArrayProperty) {
+            checkProperty(swagger, location + "[]", ((ArrayProperty) property).getItems(), problems);
+        } else if (property instanceof MapProperty) {
+            checkProperty(swagger, location + "{}", ((MapProperty) property).getAdditionalProperties(), problems);
+        }
+    }
+
+    /**
+     * The parser inlines relative and remote $refs into the definitions, so only local references to definitions
+     * remain once a definition resolved.
+     */
+    private static void checkRef(Swagger swagger, String location, String ref, RefFormat format, String name,
+                                 List<String> problems) {
+        if (format != RefFormat.INTERNAL || !ref.startsWith(DEFINITIONS)) {
+            problems.add(location + ": $ref " + ref + " could not be resolved");
+        } else if (swagger.getDefinitions() == null || !swagger.getDefinitions().containsKey(name)) {
+            problems.add(location + ": $ref " + ref + " is not defined");
+        }
+    }
+
+    /**
+     * Operations become resources and actions named after their operationId, reserved words prefixed with "call",
+     * so operationIds which only differ in case or in characters left out of names clash once generated.
+     * Operations without operationId are named after their path and checked by the generator.
+     */
+    private List<String> checkOperationIds(Map<String, Path> paths) {
+        Map<String, List<String>> names = new TreeMap<>();
+        for (Map.Entry<String, Path> path : paths.entrySet()) {
+            for (Map.Entry<HttpMethod, Operation> operation : path.getValue().getOperationMap().entrySet()) {
+                String operationId = operation.getValue().getOperationId();
+                if (operationId == null || operationId.trim().isEmpty()) {
+                    continue;
+                }
+                names.computeIfAbsent(operationName(operationId), k -> new ArrayList<>())
+                        .add(operation.getKey() + " " + path.getKey() + " (" + operationId + ")");
+            }
+        }
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, List<String>> name : names.entrySet()) {
+            if (name.getValue().size() > 1) {
+                // the operations of a path come in no particular order
+                Collections.sort(name.getValue());
+                problems.add("operationId " + name.getKey() + ": used by " + String.join(", ", name.getValue()));
+            }
+        }
+        return problems;
+    }
+
+    private String operationName(String operationId) {
+        String name = config.sanitizeName(operationId);
+        if (config.reservedWords().contains(name.toLowerCase(Locale.ENGLISH))) {
+            name = "call_" + name;
+        }
+        return DefaultCodegen.camelize(name);
+    }
+
+    /**
+     * Paths which only differ in the names of their path parameters match the same requests, so a service cannot
+     * dispatch between their operations.
+     */
+    private static List<String> checkPathConflicts(Map<String, Path> paths) {
+        Map<String, List<String>> templates = new TreeMap<>();
+        for (Map.Entry<String, Path> path : paths.entrySet()) {
+            String template = path.getKey().replaceAll("\\{[^}]*}", "{}");
+            for (HttpMethod method : path.getValue().getOperationMap().keySet()) {
+                templates.computeIfAbsent(method + " " + template, k -> new ArrayList<>()).add(path.getKey());
+            }
+        }
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, List<String>> template : templates.entrySet()) {
+            if (template.getValue().size() > 1) {
+                problems.add(template.getKey().substring(0, template.getKey().indexOf(' ')) + " "
+                        + String.join(", ", template.getValue()) + ": paths match the same requests");
+            }
+        }
+        return problems;
+    }
+
+    private static String describe(String type, String format) {
+        return format == null ? type : type + " (" + format + ")";
+    }
+}
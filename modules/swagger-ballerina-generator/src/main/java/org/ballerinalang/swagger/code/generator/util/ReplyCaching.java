@@ -0,0 +1,200 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the resources of generated services which cache their replies. A get operation is cached when it
+ * carries the {@value #EXTENSION} vendor extension, holding the time to live in seconds. A service keeps at most
+ * {@value #MAX_ENTRIES} replies, making room for new ones by dropping expired replies and then the one expiring first.
+ */
+public final class ReplyCaching {
+
+    /**
+     * Operation vendor extension holding the time to live of cached replies in seconds.
+     */
+    public static final String EXTENSION = "x-ballerina-cache-ttl";
+
+    /**
+     * Operation vendor extension holding the resolved time to live in milliseconds.
+     */
+    public static final String TTL = "x-ballerina-reply-cache-ttl";
+
+    /**
+     * Operation vendor extension holding the ballerina expression of the cache key.
+     */
+    public static final String KEY = "x-ballerina-reply-cache-key";
+
+    /**
+     * Operation vendor extension listing the array parameters whose items are joined into a cache key value.
+     */
+    public static final String JOINED_PARAMS = "x-ballerina-reply-cache-joined";
+
+    /**
+     * Additional property holding the maximum number of cached replies per service.
+     */
+    public static final String MAX_ENTRIES = "replyCacheSize";
+
+    private static final long DEFAULT_MAX_ENTRIES = 1000;
+
+    private ReplyCaching() {
+    }
+
+    /**
+     * Normalizes the maximum number of cached replies to a number for templates.
+     *
+     * @param additionalProperties generator additional properties
+     */
+    public static void processOpts(Map<String, Object> additionalProperties) {
+        Object maxEntries = additionalProperties.get(MAX_ENTRIES);
+        long value;
+        try {
+            value = maxEntries == null ? DEFAULT_MAX_ENTRIES : Long.parseLong(String.valueOf(maxEntries).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MAX_ENTRIES + " should be a whole number, found " + maxEntries);
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException(MAX_ENTRIES + " should be positive, found " + maxEntries);
+        }
+        additionalProperties.put(MAX_ENTRIES, value);
+    }
+
+    /**
+     * @param swagger definition to look through
+     * @return whether any get operation asks for a reply cache
+     */
+    public static boolean isUsed(Swagger swagger) {
+        if (swagger.getPaths() == null) {
+            return false;
+        }
+        for (Path path : swagger.getPaths().values()) {
+            Operation get = path.getGet();
+            if (get != null && get.getVendorExtensions() != null
+                    && get.getVendorExtensions().containsKey(EXTENSION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Attaches the time to live and the cache key, made of the path, query and header parameters, to a get
+     * operation which asks for a reply cache. Operations with map or nested array parameters, which have no textual
+     * form to key by, are not cached.
+     *
+     * @param operation operation to process
+     */
+    public static void addReplyCache(CodegenOperation operation) {
+        Object ttl = operation.vendorExtensions.get(EXTENSION);
+        if (ttl == null || !"GET".equalsIgnoreCase(operation.httpMethod)
+                || StreamingPayloads.isStreamingResponse(operation.vendorExtensions)) {
+            return;
+        }
+        long seconds;
+        try {
+            seconds = Long.parseLong(String.valueOf(ttl).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(EXTENSION + " of " + operation.operationId
+                    + " should be a number of seconds, found " + ttl);
+        }
+        if (seconds <= 0) {
+            return;
+        }
+        String key = cacheKey(operation);
+        if (key != null) {
+            operation.vendorExtensions.put(TTL, seconds * 1000);
+            operation.vendorExtensions.put(KEY, key);
+        }
+    }
+
+    /**
+     * Every value is uri encoded, so that no value can run into the name or value of the next parameter, and the
+     * items of array values are joined with commas. Path values take the place of their template in the path,
+     * query values follow it as a query string and header values, read from the request, follow after '#'.
+     */
+    private static String cacheKey(CodegenOperation operation) {
+        Map<String, CodegenParameter> pathParams = new HashMap<>();
+        List<CodegenParameter> joinedParams = new ArrayList<>();
+        List<CodegenParameter> queryParams = new ArrayList<>();
+        List<CodegenParameter> headerParams = new ArrayList<>();
+        for (CodegenParameter param : operation.allParams) {
+            if (Boolean.TRUE.equals(param.isHeaderParam)) {
+                headerParams.add(param);
+                continue;
+            }
+            if (!Boolean.TRUE.equals(param.isPathParam) && !Boolean.TRUE.equals(param.isQueryParam)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(param.isContainer)) {
+                if (!RequestPaths.isFlatArray(param)) {
+                    return null;
+                }
+                String index = param.paramName + "Index";
+                String item = param.paramName + "[" + index + "]";
+                param.vendorExtensions.put(RequestPaths.INDEX, index);
+                param.vendorExtensions.put(RequestPaths.ITEM, "string[]".equals(param.dataType)
+                        ? "uri:encode(" + item + ")" : "\"\" + " + item);
+                param.vendorExtensions.put(RequestPaths.VALUE, param.paramName + "Key");
+                joinedParams.add(param);
+            } else {
+                param.vendorExtensions.put(RequestPaths.VALUE, "string".equals(param.dataType)
+                        ? "uri:encode(" + param.paramName + ")" : param.paramName);
+            }
+            if (Boolean.TRUE.equals(param.isPathParam)) {
+                pathParams.put(param.baseName, param);
+            } else {
+                queryParams.add(param);
+            }
+        }
+        StringBuilder key = new StringBuilder(RequestPaths.pathExpression(operation.path, pathParams));
+        for (CodegenParameter param : queryParams) {
+            appendConstant(key, (param == queryParams.get(0) ? "?" : "&") + RequestPaths.encode(param.baseName) + "=");
+            key.append(" + ").append(param.vendorExtensions.get(RequestPaths.VALUE));
+        }
+        for (CodegenParameter param : headerParams) {
+            appendConstant(key, "#" + RequestPaths.encode(param.baseName) + "=");
+            key.append(" + uri:encode(messages:getHeader(m, \"").append(param.baseName).append("\"))");
+        }
+        if (!joinedParams.isEmpty()) {
+            operation.vendorExtensions.put(JOINED_PARAMS, joinedParams);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Appends a constant to an expression, merging it into a string literal the expression ends with.
+     */
+    private static void appendConstant(StringBuilder expression, String constant) {
+        if (expression.charAt(expression.length() - 1) == '"') {
+            expression.setLength(expression.length() - 1);
+        } else {
+            expression.append(" + \"");
+        }
+        expression.append(constant).append('"');
+    }
+}
@@ -0,0 +1,285 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits operation path templates into constant segments and parameter substitutions at generation time,
+ * so generated connector actions build request URLs with a single concatenation.
+ */
+public final class RequestPaths {
+
+    /**
+     * Operation vendor extension holding the ballerina expression of the request path.
+     */
+    public static final String PATH_EXPRESSION = "x-ballerina-path-expression";
+
+    /**
+     * Operation vendor extension listing the path, query and header parameters bound to action arguments.
+     */
+    public static final String ACTION_PARAMS = "x-ballerina-action-params";
+
+    /**
+     * Operation vendor extension listing the query parameters appended to the request path.
+     */
+    public static final String QUERY_PARAMS = "x-ballerina-query-params";
+
+    /**
+     * Operation vendor extension listing the headers set on the request message.
+     */
+    public static final String HEADER_PARAMS = "x-ballerina-header-params";
+
+    /**
+     * Parameter vendor extension holding the ballerina expression of the parameter value.
+     */
+    public static final String VALUE = "x-ballerina-value";
+
+    /**
+     * Parameter vendor extension holding the encoded query key followed by '='.
+     */
+    public static final String QUERY_KEY = "x-ballerina-query-key";
+
+    /**
+     * Parameter vendor extension holding the condition under which an optional value is sent, absent if always.
+     */
+    public static final String GUARD = "x-ballerina-guard";
+
+    /**
+     * Operation vendor extension listing the array parameters whose items are joined into a single value.
+     */
+    public static final String JOINED_PARAMS = "x-ballerina-joined-params";
+
+    /**
+     * Parameter vendor extension holding the name of the loop index over the items of an array parameter.
+     */
+    public static final String INDEX = "x-ballerina-index";
+
+    /**
+     * Parameter vendor extension holding the ballerina expression of the current item of an array parameter.
+     */
+    public static final String ITEM = "x-ballerina-item";
+
+    /**
+     * Parameter vendor extension holding the separator the items of an array parameter are joined with.
+     */
+    public static final String SEPARATOR = "x-ballerina-separator";
+
+    /**
+     * Parameter vendor extension set on array query parameters sent as one name=value pair per item.
+     */
+    public static final String MULTI = "x-ballerina-multi";
+
+    private static final Map<String, String> SEPARATORS = new HashMap<>();
+
+    private static final Set<String> PRIMITIVE_ARRAYS = new HashSet<>(Arrays.asList("string[]", "int[]", "float[]",
+            "boolean[]"));
+
+    static {
+        SEPARATORS.put("csv", ",");
+        SEPARATORS.put("ssv", "%20");
+        SEPARATORS.put("tsv", "%09");
+        SEPARATORS.put("pipes", "%7C");
+    }
+
+    private RequestPaths() {
+    }
+
+    /**
+     * Attaches the precomputed request path and the bound parameters to an operation.
+     *
+     * @param operation operation to process
+     */
+    public static void addRequestPath(CodegenOperation operation) {
+        Map<String, CodegenParameter> pathParams = new HashMap<>();
+        List<CodegenParameter> actionParams = new ArrayList<>();
+        List<CodegenParameter> queryParams = new ArrayList<>();
+        List<CodegenParameter> headerParams = new ArrayList<>();
+        List<CodegenParameter> joinedParams = new ArrayList<>();
+        for (CodegenParameter param : operation.allParams) {
+            // maps and nested arrays have no textual form, they are left to the caller's message
+            if (Boolean.TRUE.equals(param.isContainer) && !isFlatArray(param)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(param.isPathParam)) {
+                pathParams.put(param.baseName, param);
+            } else if (Boolean.TRUE.equals(param.isQueryParam)) {
+                param.vendorExtensions.put(QUERY_KEY, encode(param.baseName) + "=");
+                queryParams.add(param);
+            } else if (Boolean.TRUE.equals(param.isHeaderParam)) {
+                headerParams.add(param);
+            } else {
+                continue;
+            }
+            if (Boolean.TRUE.equals(param.isContainer)) {
+                addArray(param, joinedParams);
+            } else {
+                param.vendorExtensions.put(VALUE, valueOf(param));
+            }
+            String guard = guardOf(param);
+            if (guard != null) {
+                param.vendorExtensions.put(GUARD, guard);
+            }
+            actionParams.add(param);
+        }
+        operation.vendorExtensions.put(PATH_EXPRESSION, pathExpression(operation.path, pathParams));
+        operation.vendorExtensions.put(ACTION_PARAMS, actionParams);
+        if (!queryParams.isEmpty()) {
+            operation.vendorExtensions.put(QUERY_PARAMS, queryParams);
+        }
+        if (!headerParams.isEmpty()) {
+            operation.vendorExtensions.put(HEADER_PARAMS, headerParams);
+        }
+        if (!joinedParams.isEmpty()) {
+            operation.vendorExtensions.put(JOINED_PARAMS, joinedParams);
+        }
+    }
+
+    /**
+     * Array values are joined with the separator of their collection format, or sent as repeated query
+     * parameters for the multi format. Path and header values are always joined with commas.
+     */
+    private static void addArray(CodegenParameter param, List<CodegenParameter> joinedParams) {
+        String index = param.paramName + "Index";
+        String item = param.paramName + "[" + index + "]";
+        boolean header = Boolean.TRUE.equals(param.isHeaderParam);
+        param.vendorExtensions.put(INDEX, index);
+        if (!"string[]".equals(param.dataType)) {
+            param.vendorExtensions.put(ITEM, "\"\" + " + item);
+        } else {
+            param.vendorExtensions.put(ITEM, header ? item : "uri:encode(" + item + ")");
+        }
+        String format = Boolean.TRUE.equals(param.isQueryParam) && param.collectionFormat != null
+                ? param.collectionFormat : "csv";
+        if ("multi".equals(format)) {
+            param.vendorExtensions.put(MULTI, Boolean.TRUE);
+            return;
+        }
+        String separator = SEPARATORS.get(format);
+        if (separator == null) {
+            throw new IllegalArgumentException("Parameter " + param.baseName + " has an unsupported collection "
+                    + "format " + format);
+        }
+        param.vendorExtensions.put(SEPARATOR, header ? "," : separator);
+        param.vendorExtensions.put(VALUE, param.paramName + "Joined");
+        joinedParams.add(param);
+    }
+
+    /**
+     * Optional arguments which are left out are bound as the empty value of their type, which is not sent.
+     */
+    private static String guardOf(CodegenParameter param) {
+        if (Boolean.TRUE.equals(param.required)) {
+            return null;
+        }
+        if (Boolean.TRUE.equals(param.isContainer)) {
+            return param.paramName + ".length > 0";
+        }
+        if (isString(param)) {
+            return param.paramName + " != \"\"";
+        }
+        if (Boolean.TRUE.equals(param.isBoolean)) {
+            return param.paramName;
+        }
+        if (Boolean.TRUE.equals(param.isFloat) || Boolean.TRUE.equals(param.isDouble)) {
+            return param.paramName + " != 0.0";
+        }
+        if (Boolean.TRUE.equals(param.isInteger) || Boolean.TRUE.equals(param.isLong)) {
+            return param.paramName + " != 0";
+        }
+        return null;
+    }
+
+    /**
+     * DefaultCodegen leaves the items of non-body parameters unset, the item type is read from the array type.
+     */
+    static boolean isFlatArray(CodegenParameter param) {
+        return Boolean.TRUE.equals(param.isListContainer) && param.dataType != null
+                && PRIMITIVE_ARRAYS.contains(param.dataType);
+    }
+
+    /**
+     * Builds the concatenation of constant path segments and encoded path parameter values.
+     * Templates without a matching parameter are kept verbatim.
+     */
+    static String pathExpression(String path, Map<String, CodegenParameter> pathParams) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder constant = new StringBuilder();
+        int position = 0;
+        while (position < path.length()) {
+            int open = path.indexOf('{', position);
+            int close = open < 0 ? -1 : path.indexOf('}', open);
+            if (close < 0) {
+                constant.append(path, position, path.length());
+                break;
+            }
+            constant.append(path, position, open);
+            CodegenParameter param = pathParams.get(path.substring(open + 1, close));
+            if (param == null) {
+                constant.append(path, open, close + 1);
+            } else {
+                if (constant.length() > 0) {
+                    parts.add(quote(constant.toString()));
+                    constant.setLength(0);
+                }
+                parts.add((String) param.vendorExtensions.get(VALUE));
+            }
+            position = close + 1;
+        }
+        if (constant.length() > 0 || parts.isEmpty()) {
+            parts.add(quote(constant.toString()));
+        }
+        return String.join(" + ", parts);
+    }
+
+    private static String valueOf(CodegenParameter param) {
+        if (Boolean.TRUE.equals(param.isHeaderParam)) {
+            return isString(param) ? param.paramName : "\"\" + " + param.paramName;
+        }
+        // path and query values always follow a string constant, numbers and booleans need no encoding
+        return isString(param) ? "uri:encode(" + param.paramName + ")" : param.paramName;
+    }
+
+    private static boolean isString(CodegenParameter param) {
+        return "string".equals(param.dataType);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenModel;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.codegen.CodegenProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resolves the schema constraints of models and operation parameters into {@link ValidationRule}s, so
+ * service templates can emit straight-line validation code instead of interpreting the schema per request.
+ */
+public final class RequestValidators {
+
+    /**
+     * Vendor extension holding the rules of a model or a parameter.
+     */
+    public static final String RULES = "x-ballerina-validation";
+
+    /**
+     * Operation vendor extension set when the operation has anything to validate.
+     */
+    public static final String VALIDATED = "x-ballerina-validated";
+
+    /**
+     * Operation vendor extension set when the operation has parameter rules.
+     */
+    public static final String PARAM_VALIDATOR = "x-ballerina-param-validator";
+
+    /**
+     * Operation vendor extension listing the bound parameters which carry rules.
+     */
+    public static final String VALIDATED_PARAMS = "x-ballerina-validated-params";
+
+    /**
+     * Operation vendor extension naming the validator function of the request body.
+     */
+    public static final String BODY_VALIDATOR = "x-ballerina-body-validator";
+
+    private RequestValidators() {
+    }
+
+    /**
+     * @param modelClassname class name of the model
+     * @return name of the generated validator function of the model
+     */
+    public static String validatorName(String modelClassname) {
+        return "validate" + modelClassname;
+    }
+
+    /**
+     * Attaches the json field rules of a model to its vendor extensions.
+     *
+     * @param model       model to process
+     * @param validatorOf resolves a referenced type to its validator function, or null if it has none
+     */
+    public static void addModelRules(CodegenModel model, Function<String, String> validatorOf) {
+        List<ValidationRule> rules = new ArrayList<>();
+        for (CodegenProperty property : model.vars) {
+            ValidationRule rule = new ValidationRule();
+            rule.name = model.name + "." + property.baseName;
+            rule.expression = "payload[\"" + escape(property.baseName) + "\"]";
+            rule.absent = rule.expression + " == null";
+            rule.guard = rule.expression + " != null && ";
+            rule.stringValue = "(string) " + rule.expression;
+            rule.numberValue = "(float) " + rule.expression;
+            rule.required = Boolean.TRUE.equals(property.required);
+            rule.type = jsonType(property);
+            rule.typed = rule.type != null;
+            if (!Boolean.TRUE.equals(property.isContainer) && property.complexType != null) {
+                rule.validator = validatorOf.apply(property.complexType);
+            }
+            rule.enumComparisons = enumComparisons(rule.stringValue, property._enum);
+            rule.minLength = property.minLength;
+            rule.maxLength = property.maxLength;
+            rule.pattern = property.pattern == null ? null : escape(property.pattern);
+            rule.searchPattern = property.pattern == null ? null : escape(searchPattern(property.pattern));
+            rule.minimum = toFloatLiteral(property.minimum);
+            rule.exclusiveMinimum = Boolean.TRUE.equals(property.exclusiveMinimum);
+            rule.maximum = toFloatLiteral(property.maximum);
+            rule.exclusiveMaximum = Boolean.TRUE.equals(property.exclusiveMaximum);
+            rules.add(rule);
+        }
+        model.vendorExtensions.put(RULES, rules);
+    }
+
+    /**
+     * Attaches parameter rules and the request body validator to an operation.
+     *
+     * @param operation   operation to process
+     * @param validatorOf resolves a referenced type to its validator function, or null if it has none
+     */
+    public static void addOperationRules(CodegenOperation operation, Function<String, String> validatorOf) {
+        List<CodegenParameter> validatedParams = new ArrayList<>();
+        for (CodegenParameter param : operation.allParams) {
+            // only query and path parameters are bound to resource arguments
+            if (!Boolean.TRUE.equals(param.isQueryParam) && !Boolean.TRUE.equals(param.isPathParam)) {
+                continue;
+            }
+            ValidationRule rule = parameterRule(param);
+            if (rule != null) {
+                param.vendorExtensions.put(RULES, rule);
+                validatedParams.add(param);
+            }
+        }
+        if (!validatedParams.isEmpty()) {
+            operation.vendorExtensions.put(PARAM_VALIDATOR, Boolean.TRUE);
+            operation.vendorExtensions.put(VALIDATED_PARAMS, validatedParams);
+        }
+        if (operation.bodyParam != null && operation.bodyParam.dataType != null) {
+            String bodyValidator = validatorOf.apply(operation.bodyParam.dataType);
+            if (bodyValidator != null) {
+                operation.vendorExtensions.put(BODY_VALIDATOR, bodyValidator);
+            }
+        }
+        if (!validatedParams.isEmpty() || operation.vendorExtensions.containsKey(BODY_VALIDATOR)) {
+            operation.vendorExtensions.put(VALIDATED, Boolean.TRUE);
+        }
+    }
+
+    private static ValidationRule parameterRule(CodegenParameter param) {
+        boolean isString = Boolean.TRUE.equals(param.isString);
+        boolean isNumber = Boolean.TRUE.equals(param.isInteger) || Boolean.TRUE.equals(param.isLong)
+                || Boolean.TRUE.equals(param.isFloat) || Boolean.TRUE.equals(param.isDouble);
+        ValidationRule rule = new ValidationRule();
+        rule.name = param.baseName;
+        rule.expression = param.paramName;
+        if (isString) {
+            rule.stringValue = param.paramName;
+            rule.absent = param.paramName + " == \"\"";
+            rule.required = Boolean.TRUE.equals(param.required);
+            if (!rule.required) {
+                rule.guard = param.paramName + " != \"\" && ";
+            }
+            rule.enumComparisons = enumComparisons(rule.stringValue, param._enum);
+            rule.minLength = param.minLength;
+            rule.maxLength = param.maxLength;
+            rule.pattern = param.pattern == null ? null : escape(param.pattern);
+            rule.searchPattern = param.pattern == null ? null : escape(searchPattern(param.pattern));
+        }
+        if (isNumber) {
+            // an absent argument is bound as zero, so range rules of optional parameters skip zero
+            if (!Boolean.TRUE.equals(param.required)) {
+                boolean isFloat = Boolean.TRUE.equals(param.isFloat) || Boolean.TRUE.equals(param.isDouble);
+                rule.guard = param.paramName + (isFloat ? " != 0.0 && " : " != 0 && ");
+            }
+            rule.numberValue = "(float) " + param.paramName;
+            rule.minimum = toFloatLiteral(param.minimum);
+            rule.exclusiveMinimum = Boolean.TRUE.equals(param.exclusiveMinimum);
+            rule.maximum = toFloatLiteral(param.maximum);
+            rule.exclusiveMaximum = Boolean.TRUE.equals(param.exclusiveMaximum);
+        }
+        boolean constrained = rule.required || rule.enumComparisons != null || rule.minLength != null
+                || rule.maxLength != null || rule.pattern != null || rule.minimum != null || rule.maximum != null;
+        return constrained ? rule : null;
+    }
+
+    private static String jsonType(CodegenProperty property) {
+        if (Boolean.TRUE.equals(property.isListContainer)) {
+            return "Array";
+        }
+        if (Boolean.TRUE.equals(property.isMapContainer)) {
+            return "Object";
+        }
+        if (Boolean.TRUE.equals(property.isString) || Boolean.TRUE.equals(property.isDate)
+                || Boolean.TRUE.equals(property.isDateTime)) {
+            return "String";
+        }
+        if (Boolean.TRUE.equals(property.isInteger) || Boolean.TRUE.equals(property.isLong)) {
+            return "Integer";
+        }
+        if (Boolean.TRUE.equals(property.isFloat) || Boolean.TRUE.equals(property.isDouble)) {
+            return "Number";
+        }
+        if (Boolean.TRUE.equals(property.isBoolean)) {
+            return "Boolean";
+        }
+        if (property.complexType != null && !Boolean.TRUE.equals(property.isPrimitiveType)) {
+            return "Object";
+        }
+        return null;
+    }
+
+    private static List<String> enumComparisons(String stringValue, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        List<String> comparisons = new ArrayList<>(values.size());
+        for (String value : values) {
+            comparisons.add(stringValue + " == \"" + escape(value) + "\"");
+        }
+        return comparisons;
+    }
+
+    private static String toFloatLiteral(Number number) {
+        if (number == null) {
+            return null;
+        }
+        String literal = new BigDecimal(number.toString()).toPlainString();
+        return literal.contains(".") ? literal : literal + ".0";
+    }
+
+    /**
+     * Swagger patterns are searched for in the value while strings:matches matches the whole value, so the pattern is
+     * surrounded by any characters, line terminators included, unless it is anchored at both ends. Anchors keep their
+     * meaning within the group, which also covers alternatives with an anchor in only some of them.
+     */
+    private static String searchPattern(String pattern) {
+        boolean anchored = pattern.startsWith("^") && pattern.endsWith("$") && !pattern.endsWith("\\$")
+                && pattern.indexOf('|') < 0;
+        return anchored ? pattern : "[\\s\\S]*(?:" + pattern + ")[\\s\\S]*";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,150 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.util.Json;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves which connector actions cache their responses and for how long.
+ * Caching is opted into with the {@value #ENABLED} additional property and applies to get operations only.
+ * The {@value #EXTENSION} vendor extension of an operation overrides the default time to live: either the
+ * number of seconds, a map with a "ttl" entry, or false to leave the operation uncached.
+ */
+public final class ResponseCaching {
+
+    /**
+     * Additional property enabling the response cache of generated connectors.
+     */
+    public static final String ENABLED = "responseCache";
+
+    /**
+     * Additional property holding the default time to live in seconds.
+     */
+    public static final String DEFAULT_TTL = "responseCacheTtl";
+
+    /**
+     * Additional property holding the maximum number of cached responses per connector.
+     */
+    public static final String MAX_ENTRIES = "responseCacheSize";
+
+    /**
+     * Operation vendor extension configuring the cache of that operation.
+     */
+    public static final String EXTENSION = "x-ballerina-cache";
+
+    /**
+     * Operation vendor extension holding the resolved time to live in milliseconds, absent if not cached.
+     */
+    public static final String TTL = "x-ballerina-client-cache-ttl";
+
+    /**
+     * Operation vendor extension holding the ballerina expression of the cache key of a request.
+     */
+    public static final String KEY = "x-ballerina-client-cache-key";
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private ResponseCaching() {
+    }
+
+    /**
+     * @param additionalProperties generator additional properties
+     * @return whether the response cache has been opted into
+     */
+    public static boolean isEnabled(Map<String, Object> additionalProperties) {
+        return Boolean.parseBoolean(String.valueOf(additionalProperties.get(ENABLED)));
+    }
+
+    /**
+     * Normalizes the cache related additional properties to numbers for templates.
+     *
+     * @param additionalProperties generator additional properties
+     */
+    public static void processOpts(Map<String, Object> additionalProperties) {
+        additionalProperties.put(ENABLED, Boolean.TRUE);
+        additionalProperties.put(DEFAULT_TTL, toLong(DEFAULT_TTL, additionalProperties.get(DEFAULT_TTL),
+                DEFAULT_TTL_SECONDS));
+        additionalProperties.put(MAX_ENTRIES, toLong(MAX_ENTRIES, additionalProperties.get(MAX_ENTRIES),
+                DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Marks a get operation as cached unless its vendor extension opts out.
+     *
+     * @param operation            operation to process, with a lower case http method
+     * @param additionalProperties generator additional properties, already normalized
+     */
+    public static void addCacheTtl(CodegenOperation operation, Map<String, Object> additionalProperties) {
+        // streamed responses are not held in memory
+        if (!"get".equals(operation.httpMethod) || StreamingPayloads.isStreamingResponse(operation.vendorExtensions)) {
+            return;
+        }
+        Object config = operation.vendorExtensions.get(EXTENSION);
+        if (config instanceof JsonNode) {
+            config = Json.mapper().convertValue(config, Object.class);
+        }
+        if (config instanceof Map) {
+            config = ((Map<?, ?>) config).get("ttl");
+        }
+        if (config != null && "false".equalsIgnoreCase(String.valueOf(config))) {
+            return;
+        }
+        long ttl = toLong(EXTENSION + " of " + operation.operationId, config,
+                (Long) additionalProperties.get(DEFAULT_TTL));
+        if (ttl > 0) {
+            operation.vendorExtensions.put(TTL, ttl * 1000);
+            operation.vendorExtensions.put(KEY, cacheKey(operation));
+        }
+    }
+
+    /**
+     * Responses differ by the request path and by the headers set from action arguments, so both make up the key.
+     * Headers the caller sets on the request are not part of it, requests carrying credentials bypass the cache.
+     */
+    private static String cacheKey(CodegenOperation operation) {
+        StringBuilder key = new StringBuilder("requestPath");
+        Object headerParams = operation.vendorExtensions.get(RequestPaths.HEADER_PARAMS);
+        if (headerParams instanceof List) {
+            for (Object param : (List<?>) headerParams) {
+                CodegenParameter header = (CodegenParameter) param;
+                key.append(" + \"\\n").append(header.baseName).append(": \" + ")
+                        .append(header.vendorExtensions.get(RequestPaths.VALUE));
+            }
+        }
+        return key.toString();
+    }
+
+    private static long toLong(String name, Object value, long defaultValue) {
+        if (value == null || "true".equalsIgnoreCase(String.valueOf(value))) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " should be a whole number, found " + value);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Splits the operations of large tags over several generated files, so that downstream builds compile smaller
+ * units. With {@value #SHARD_BY} set to "prefix" every first path segment of a tag gets a file of its own, and
+ * {@value #MAX_OPERATIONS} caps the number of operations per file.
+ * <p>
+ * Connectors of a tag can be split anywhere, so oversized files are cut in spec order. Services of a tag must
+ * keep distinct base paths, so they are only split at path segments: a path prefix is moved into the base path
+ * of its own service, largest prefixes first, until the operations left over fit. Operations which share a path
+ * or are only distinguished by path parameters stay together, so a service can still exceed the cap.
+ */
+public class Sharding {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Sharding.class);
+
+    /**
+     * Additional property selecting the split strategy, "prefix" to split tags by their first path segment.
+     */
+    public static final String SHARD_BY = "shardBy";
+
+    /**
+     * Additional property holding the maximum number of operations per generated file.
+     */
+    public static final String MAX_OPERATIONS = "maxOperationsPerFile";
+
+    /**
+     * Operations bundle entry holding the path prefix of a service shard, appended to its base path.
+     */
+    public static final String BASE_PATH = "shardBasePath";
+
+    private static final String PREFIX = "prefix";
+
+    private static final String DEFAULT_TAG = "default";
+
+    private final boolean byPrefix;
+    private final int maxOperations;
+    private final boolean distinctBasePaths;
+    private final Map<String, String> groups = new HashMap<>();
+    private final Map<String, String> basePaths = new HashMap<>();
+    private final Set<String> names = new HashSet<>();
+
+    private Sharding(boolean byPrefix, int maxOperations, boolean distinctBasePaths) {
+        this.byPrefix = byPrefix;
+        this.maxOperations = maxOperations;
+        this.distinctBasePaths = distinctBasePaths;
+    }
+
+    /**
+     * Reads the sharding additional properties.
+     *
+     * @param additionalProperties generator additional properties
+     * @param distinctBasePaths    whether the generated files are services, which need distinct base paths
+     * @return the sharding, or null if operations are not split
+     */
+    public static Sharding fromOpts(Map<String, Object> additionalProperties, boolean distinctBasePaths) {
+        Object shardBy = additionalProperties.get(SHARD_BY);
+        if (shardBy != null && !PREFIX.equalsIgnoreCase(String.valueOf(shardBy).trim())) {
+            throw new IllegalArgumentException(SHARD_BY + " should be " + PREFIX + ", found " + shardBy);
+        }
+        Object max = additionalProperties.get(MAX_OPERATIONS);
+        int maxOperations = 0;
+        if (max != null) {
+            try {
+                maxOperations = Integer.parseInt(String.valueOf(max).trim());
+            } catch (NumberFormatException e) {
+                maxOperations = -1;
+            }
+            if (maxOperations < 1) {
+                throw new IllegalArgumentException(MAX_OPERATIONS + " should be a positive number, found " + max);
+            }
+        }
+        if (shardBy == null && maxOperations == 0) {
+            return null;
+        }
+        return new Sharding(shardBy != null, maxOperations, distinctBasePaths);
+    }
+
+    /**
+     * Assigns every operation of the definition to a shard of its tags.
+     *
+     * @param swagger     swagger definition
+     * @param sanitizeTag sanitizes tags the way the generator groups operations
+     */
+    public void plan(Swagger swagger, Function<String, String> sanitizeTag) {
+        if (swagger.getPaths() == null) {
+            return;
+        }
+        Map<String, List<String>> tags = new LinkedHashMap<>();
+        for (Map.Entry<String, Path> path : swagger.getPaths().entrySet()) {
+            for (Map.Entry<HttpMethod, Operation> operation : path.getValue().getOperationMap().entrySet()) {
+                List<String> operationTags = operation.getValue().getTags();
+                if (operationTags == null || operationTags.isEmpty()) {
+                    operationTags = Collections.singletonList(DEFAULT_TAG);
+                }
+                for (String tag : operationTags) {
+                    names.add(sanitizeTag.apply(tag));
+                    tags.computeIfAbsent(sanitizeTag.apply(tag), k -> new ArrayList<>())
+                            .add(key(operation.getKey().name(), path.getKey()));
+                }
+            }
+        }
+        for (Map.Entry<String, List<String>> tag : tags.entrySet()) {
+            if (distinctBasePaths) {
+                splitAtPrefixes(tag.getKey(), "", tag.getValue(), byPrefix);
+            } else {
+                splitInOrder(tag.getKey(), tag.getValue());
+            }
+        }
+    }
+
+    /**
+     * @param tag        sanitized tag the operation is grouped under
+     * @param httpMethod HTTP method of the operation
+     * @param path       path of the operation
+     * @return the group, and hence file, the operation is generated in
+     */
+    public String group(String tag, String httpMethod, String path) {
+        String group = groups.get(tag + " " + key(httpMethod, path));
+        return group == null ? tag : group;
+    }
+
+    /**
+     * Moves the path prefix of a service shard from the operation paths to the base path of the service.
+     *
+     * @param objs       operations bundle of a service
+     * @param operations operations of the service
+     */
+    public void addBasePath(Map<String, Object> objs, List<CodegenOperation> operations) {
+        String basePath = operations.isEmpty() ? null : basePaths.get(operations.get(0).baseName);
+        if (basePath == null || basePath.isEmpty()) {
+            return;
+        }
+        objs.put(BASE_PATH, basePath);
+        for (CodegenOperation operation : operations) {
+            String path = operation.path.substring(basePath.length());
+            operation.path = path.isEmpty() ? "/" : path;
+        }
+    }
+
+    private void splitAtPrefixes(String tag, String prefix, List<String> operations, boolean forced) {
+        if (!forced && (maxOperations == 0 || operations.size() <= maxOperations)) {
+            assign(tag, prefix, operations, 0);
+            return;
+        }
+        Map<String, List<String>> children = new LinkedHashMap<>();
+        List<String> rest = new ArrayList<>();
+        for (String operation : operations) {
+            String segment = nextSegment(operation, prefix);
+            if (segment == null) {
+                rest.add(operation);
+            } else {
+                children.computeIfAbsent(prefix + "/" + segment, k -> new ArrayList<>()).add(operation);
+            }
+        }
+        List<Map.Entry<String, List<String>>> bySize = new ArrayList<>(children.entrySet());
+        bySize.sort((a, b) -> b.getValue().size() - a.getValue().size());
+        int remaining = operations.size();
+        Set<String> extracted = new HashSet<>();
+        for (Map.Entry<String, List<String>> child : bySize) {
+            if (!forced && remaining <= maxOperations) {
+                break;
+            }
+            extracted.add(child.getKey());
+            remaining -= child.getValue().size();
+        }
+        for (Map.Entry<String, List<String>> child : children.entrySet()) {
+            if (extracted.contains(child.getKey())) {
+                splitAtPrefixes(tag, child.getKey(), child.getValue(), false);
+            } else {
+                rest.addAll(child.getValue());
+            }
+        }
+        if (!rest.isEmpty()) {
+            if (maxOperations > 0 && rest.size() > maxOperations) {
+                LOGGER.warn("Service of " + tag + " at '" + prefix + "' has " + rest.size() + " operations, more "
+                        + "than " + MAX_OPERATIONS + " " + maxOperations + ", since their paths share no prefix");
+            }
+            assign(tag, prefix, rest, 0);
+        }
+    }
+
+    private void splitInOrder(String tag, List<String> operations) {
+        Map<String, List<String>> prefixes = new LinkedHashMap<>();
+        for (String operation : operations) {
+            String segment = byPrefix ? nextSegment(operation, "") : null;
+            prefixes.computeIfAbsent(segment == null ? "" : "/" + segment, k -> new ArrayList<>()).add(operation);
+        }
+        for (Map.Entry<String, List<String>> prefix : prefixes.entrySet()) {
+            List<String> prefixOperations = prefix.getValue();
+            int size = maxOperations == 0 ? prefixOperations.size() : maxOperations;
+            for (int from = 0; from < prefixOperations.size(); from += size) {
+                assign(tag, prefix.getKey(), prefixOperations.subList(from,
+                        Math.min(from + size, prefixOperations.size())), from / size);
+            }
+        }
+    }
+
+    private void assign(String tag, String prefix, List<String> operations, int part) {
+        StringBuilder name = new StringBuilder(tag);
+        for (String segment : prefix.split("/")) {
+            if (!segment.isEmpty()) {
+                name.append('_').append(segment.replaceAll("[^A-Za-z0-9]", "_"));
+            }
+        }
+        if (part > 0) {
+            name.append('_').append(part + 1);
+        }
+        String group = name.toString();
+        // sanitized tags hold no underscores, shards may only clash with each other
+        for (int i = 2; !group.equals(tag) && names.contains(group); i++) {
+            group = name + "_" + i;
+        }
+        names.add(group);
+        basePaths.put(group, distinctBasePaths ? prefix : "");
+        for (String operation : operations) {
+            groups.put(tag + " " + operation, group);
+        }
+    }
+
+    /**
+     * @return the literal path segment following the prefix, or null if the path ends there or continues with a
+     * path parameter, which cannot be part of a base path
+     */
+    private static String nextSegment(String operation, String prefix) {
+        String path = operation.substring(operation.indexOf(' ') + 1);
+        String rest = path.substring(prefix.length());
+        int start = rest.startsWith("/") ? 1 : 0;
+        int end = rest.indexOf('/', start);
+        String segment = end < 0 ? rest.substring(start) : rest.substring(start, end);
+        return segment.isEmpty() || segment.contains("{") ? null : segment;
+    }
+
+    private static String key(String httpMethod, String path) {
+        return httpMethod.toUpperCase(Locale.ENGLISH) + " " + path;
+    }
+}
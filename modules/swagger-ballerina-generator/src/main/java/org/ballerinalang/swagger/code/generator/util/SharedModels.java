@@ -0,0 +1,87 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenModel;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.models.Model;
+import io.swagger.models.Response;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps definitions from being processed again at every place they are referenced from.
+ * <p>
+ * DefaultCodegen builds a model for the return type of every operation, and expands the response schema of every
+ * operation without examples into example documents holding every definition reachable from it. On definitions
+ * which reference each other, that makes generation grow with the number of operations times the size of the
+ * reference graph. Here every definition is built once into a model shared by the models bundle and all
+ * operations, and response schemas are not expanded: the templates of this module do not use the expanded
+ * examples, and the mock service synthesizes its payloads with {@link ExampleSynthesizer}, which expands each
+ * definition once. References between definitions stay references, as written in types.json.
+ */
+public class SharedModels {
+
+    private final Map<Model, CodegenModel> models = new IdentityHashMap<>();
+
+    /**
+     * @param name  name of the definition, or of the inline model
+     * @param model definition
+     * @param build builds the model of the definition, called once per definition
+     * @return the shared model of the definition
+     */
+    public synchronized CodegenModel model(String name, Model model, Supplier<CodegenModel> build) {
+        CodegenModel shared = models.get(model);
+        if (shared != null && name != null && name.equals(shared.name)) {
+            return shared;
+        }
+        Guardrails.checkpoint("definition " + name);
+        // models may be built while building another one, so the map is not updated through computeIfAbsent
+        CodegenModel built = build.get();
+        if (shared == null) {
+            models.put(model, built);
+        }
+        return built;
+    }
+
+    /**
+     * Builds an operation without expanding its response schema into examples. Examples written in the
+     * definition are kept.
+     *
+     * @param response response the operation returns, as picked by DefaultCodegen#findMethodResponse
+     * @param build    builds the operation
+     * @return the operation
+     */
+    public static CodegenOperation withoutSchemaExamples(Response response, Supplier<CodegenOperation> build) {
+        if (response == null || response.getSchema() == null || response.getExamples() != null) {
+            return build.get();
+        }
+        // DefaultCodegen only expands the schema of responses without examples
+        response.setExamples(Collections.<String, Object>emptyMap());
+        try {
+            CodegenOperation operation = build.get();
+            operation.examples = null;
+            return operation;
+        } finally {
+            response.setExamples(null);
+        }
+    }
+}
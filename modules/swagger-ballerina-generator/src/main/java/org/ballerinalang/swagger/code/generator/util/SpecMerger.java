@@ -0,0 +1,293 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Scheme;
+import io.swagger.models.SecurityRequirement;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+import io.swagger.models.auth.SecuritySchemeDefinition;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.util.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Merges several swagger definitions into one, so that the services of a platform which share most of their
+ * definitions can be generated into a single package, processing and writing every shared definition once.
+ * <p>
+ * Definitions, parameters, responses, security definitions and operations of the same name are kept once when
+ * they are structurally identical, and reported as conflicts when they differ. Definitions are only compared by
+ * name, since renaming structurally identical definitions would change the generated type names. Global
+ * consumes, produces, security and path parameters are moved to the operations they apply to, and base paths
+ * which differ between definitions are moved into their paths, so every operation keeps its meaning in the
+ * merged definition. All definitions which set a host must set the same one, since connectors call a single
+ * endpoint.
+ */
+public class SpecMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecMerger.class);
+
+    private final List<String> conflicts = new ArrayList<>();
+    private final Map<String, JsonNode> trees = new HashMap<>();
+    private final Map<String, String> origins = new HashMap<>();
+    private int merged;
+    private int deduplicated;
+
+    /**
+     * Merges the definitions into the first one.
+     *
+     * @param locations locations of the definitions, to report conflicts
+     * @param specs     parsed definitions, in the order of their locations
+     * @return the first definition, holding the content of all of them
+     * @throws IllegalArgumentException listing every conflict if the definitions cannot be merged
+     */
+    public Swagger merge(List<String> locations, List<Swagger> specs) {
+        Swagger target = specs.get(0);
+        String basePath = commonBasePath(specs);
+        Map<String, Path> paths = new LinkedHashMap<>();
+        Map<String, Model> definitions = new LinkedHashMap<>();
+        Map<String, Parameter> parameters = new LinkedHashMap<>();
+        Map<String, Response> responses = new LinkedHashMap<>();
+        Map<String, SecuritySchemeDefinition> securityDefinitions = new LinkedHashMap<>();
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        Map<String, Tag> tags = new LinkedHashMap<>();
+        Set<Scheme> schemes = new LinkedHashSet<>();
+        String host = null;
+        String hostLocation = null;
+
+        for (int i = 0; i < specs.size(); i++) {
+            Swagger spec = specs.get(i);
+            String location = locations.get(i);
+            Guardrails.checkpoint("swagger definition " + location);
+            // definitions without a host take that of the merged definition, every host which is set must agree
+            if (spec.getHost() != null) {
+                if (host == null) {
+                    host = spec.getHost();
+                    hostLocation = location;
+                } else if (!host.equals(spec.getHost())) {
+                    conflicts.add("host " + spec.getHost() + " of " + location + " differs from " + host + " of "
+                            + hostLocation);
+                }
+            }
+            String prefix = normalizeBasePath(spec.getBasePath()).substring(normalizeBasePath(basePath).length());
+            if (spec.getPaths() != null) {
+                for (Map.Entry<String, Path> path : spec.getPaths().entrySet()) {
+                    localize(spec, path.getValue());
+                    String key = !prefix.isEmpty() && "/".equals(path.getKey()) ? prefix : prefix + path.getKey();
+                    mergePath(paths, key, path.getValue(), location);
+                }
+            }
+            mergeNamed("definition", definitions, spec.getDefinitions(), location);
+            mergeNamed("parameter", parameters, spec.getParameters(), location);
+            mergeNamed("response", responses, spec.getResponses(), location);
+            mergeNamed("security definition", securityDefinitions, spec.getSecurityDefinitions(), location);
+            mergeNamed("extension", extensions, spec.getVendorExtensions(), location);
+            if (spec.getTags() != null) {
+                for (Tag tag : spec.getTags()) {
+                    tags.putIfAbsent(tag.getName(), tag);
+                }
+            }
+            if (spec.getSchemes() != null) {
+                schemes.addAll(spec.getSchemes());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            StringBuilder message = new StringBuilder("Could not merge swagger definitions, ")
+                    .append(conflicts.size()).append(conflicts.size() == 1 ? " conflict:" : " conflicts:");
+            for (String conflict : conflicts) {
+                message.append("\n  ").append(conflict);
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+
+        target.setHost(host);
+        target.setBasePath(basePath);
+        target.setPaths(paths);
+        target.setDefinitions(definitions.isEmpty() ? null : definitions);
+        target.setParameters(parameters.isEmpty() ? null : parameters);
+        target.setResponses(responses.isEmpty() ? null : responses);
+        target.setSecurityDefinitions(securityDefinitions.isEmpty() ? null : securityDefinitions);
+        target.vendorExtensions(extensions);
+        target.setTags(tags.isEmpty() ? null : new ArrayList<>(tags.values()));
+        target.setSchemes(schemes.isEmpty() ? null : new ArrayList<>(schemes));
+        target.setConsumes(null);
+        target.setProduces(null);
+        target.setSecurity(null);
+        LOGGER.info("Merged " + specs.size() + " swagger definitions, keeping " + merged + " of "
+                + (merged + deduplicated) + " named components and operations");
+        return target;
+    }
+
+    /**
+     * Copies the global consumes, produces and security of a definition, and the parameters of a path, to the
+     * operations they apply to, so that operations keep them once merged with the paths of other definitions.
+     */
+    private static void localize(Swagger spec, Path path) {
+        for (Operation operation : path.getOperations()) {
+            if (operation.getConsumes() == null && spec.getConsumes() != null) {
+                operation.setConsumes(new ArrayList<>(spec.getConsumes()));
+            }
+            if (operation.getProduces() == null && spec.getProduces() != null) {
+                operation.setProduces(new ArrayList<>(spec.getProduces()));
+            }
+            if (operation.getSecurity() == null && spec.getSecurity() != null) {
+                List<Map<String, List<String>>> security = new ArrayList<>();
+                for (SecurityRequirement requirement : spec.getSecurity()) {
+                    security.add(requirement.getRequirements());
+                }
+                operation.setSecurity(security);
+            }
+            if (path.getParameters() != null) {
+                // as DefaultGenerator does, path parameters are appended unless the operation overrides them
+                for (Parameter parameter : path.getParameters()) {
+                    if (parameter == null || !hasParameter(operation, parameter)) {
+                        operation.addParameter(parameter);
+                    }
+                }
+            }
+        }
+        path.setParameters(null);
+    }
+
+    private static boolean hasParameter(Operation operation, Parameter parameter) {
+        if (operation.getParameters() == null) {
+            return false;
+        }
+        for (Parameter existing : operation.getParameters()) {
+            if (existing != null && Objects.equals(existing.getIn(), parameter.getIn())
+                    && Objects.equals(existing.getName(), parameter.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void mergePath(Map<String, Path> paths, String key, Path path, String location) {
+        Path target = paths.get(key);
+        if (target == null) {
+            paths.put(key, path);
+            for (HttpMethod method : path.getOperationMap().keySet()) {
+                origins.put("operation " + method + " " + key, location);
+                merged++;
+            }
+            return;
+        }
+        for (Map.Entry<HttpMethod, Operation> operation : path.getOperationMap().entrySet()) {
+            String name = "operation " + operation.getKey() + " " + key;
+            Operation existing = target.getOperationMap().get(operation.getKey());
+            if (existing == null) {
+                target.set(operation.getKey().name().toLowerCase(Locale.ENGLISH), operation.getValue());
+                origins.put(name, location);
+                merged++;
+            } else if (sameStructure(name, existing, operation.getValue())) {
+                deduplicated++;
+            } else {
+                conflicts.add(name + " differs between " + origins.get(name) + " and " + location);
+            }
+        }
+    }
+
+    private <T> void mergeNamed(String kind, Map<String, T> target, Map<String, T> source, String location) {
+        if (source == null) {
+            return;
+        }
+        for (Map.Entry<String, T> entry : source.entrySet()) {
+            String name = kind + " " + entry.getKey();
+            T existing = target.get(entry.getKey());
+            if (existing == null) {
+                target.put(entry.getKey(), entry.getValue());
+                origins.put(name, location);
+                merged++;
+            } else if (sameStructure(name, existing, entry.getValue())) {
+                deduplicated++;
+            } else {
+                conflicts.add(name + " differs between " + origins.get(name) + " and " + location);
+            }
+        }
+    }
+
+    /**
+     * Compares the json trees of two components, keeping the tree of the merged one for further comparisons.
+     */
+    private boolean sameStructure(String name, Object existing, Object candidate) {
+        JsonNode tree = trees.computeIfAbsent(name, k -> Json.mapper().valueToTree(existing));
+        return tree.equals(Json.mapper().valueToTree(candidate));
+    }
+
+    /**
+     * @return the base path shared by all definitions, the longest common sequence of leading path segments
+     */
+    private static String commonBasePath(List<Swagger> specs) {
+        String first = specs.get(0).getBasePath();
+        boolean same = true;
+        for (Swagger spec : specs) {
+            same &= Objects.equals(first, spec.getBasePath());
+        }
+        if (same) {
+            return first;
+        }
+        String[] common = normalizeBasePath(first).split("/");
+        int length = common.length;
+        for (Swagger spec : specs) {
+            String[] segments = normalizeBasePath(spec.getBasePath()).split("/");
+            int i = 0;
+            while (i < length && i < segments.length && common[i].equals(segments[i])) {
+                i++;
+            }
+            length = i;
+        }
+        StringBuilder basePath = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (!common[i].isEmpty()) {
+                basePath.append('/').append(common[i]);
+            }
+        }
+        return basePath.length() == 0 ? "/" : basePath.toString();
+    }
+
+    /**
+     * @return the base path with a leading and without a trailing slash, or an empty string for the root
+     */
+    private static String normalizeBasePath(String basePath) {
+        if (basePath == null) {
+            return "";
+        }
+        String normalized = basePath.trim();
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.isEmpty() || normalized.startsWith("/") ? normalized : "/" + normalized;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Detects operations with binary, file or multipart payloads. Such payloads are never bound to typed values:
+ * the request or response message is handed over as is, so the transport streams the body instead of the
+ * generated code materializing it as a string or json. A request body is streamed when it is a file or a
+ * {@code format: binary} schema, or when the operation has a body and every media type it consumes is binary or
+ * multipart, so that an operation which also accepts json keeps its typed body.
+ */
+public final class StreamingPayloads {
+
+    /**
+     * Operation vendor extension set when the request body is passed through unread.
+     */
+    public static final String STREAMING_REQUEST = "x-ballerina-streaming-request";
+
+    /**
+     * Operation vendor extension set when the response body is passed through unread.
+     */
+    public static final String STREAMING_RESPONSE = "x-ballerina-streaming-response";
+
+    private static final String MULTIPART = "multipart/";
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    private static final String BINARY_FORMAT = "binary";
+
+    private StreamingPayloads() {
+    }
+
+    /**
+     * Flags an operation whose body schema is {@code format: binary}, which its codegen body parameter does not tell.
+     *
+     * @param co        operation built by the generator
+     * @param operation swagger operation it was built from
+     */
+    public static void addBinaryBody(CodegenOperation co, Operation operation) {
+        if (operation.getParameters() == null) {
+            return;
+        }
+        for (Parameter param : operation.getParameters()) {
+            if (param instanceof BodyParameter) {
+                Model schema = ((BodyParameter) param).getSchema();
+                if (schema instanceof ModelImpl && BINARY_FORMAT.equals(((ModelImpl) schema).getFormat())) {
+                    co.vendorExtensions.put(STREAMING_REQUEST, Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flags streaming operations and drops their typed request body and return type.
+     *
+     * @param operation operation to process
+     */
+    public static void addStreaming(CodegenOperation operation) {
+        if (operation.vendorExtensions.containsKey(STREAMING_REQUEST) || isStreamingRequest(operation)) {
+            operation.vendorExtensions.put(STREAMING_REQUEST, Boolean.TRUE);
+            operation.bodyParam = null;
+        }
+        if (isStreamingResponse(operation)) {
+            operation.vendorExtensions.put(STREAMING_RESPONSE, Boolean.TRUE);
+            operation.returnType = null;
+        }
+    }
+
+    /**
+     * @param vendorExtensions vendor extensions of a processed operation
+     * @return whether the response body of the operation is streamed
+     */
+    public static boolean isStreamingResponse(Map<String, Object> vendorExtensions) {
+        return vendorExtensions.containsKey(STREAMING_RESPONSE);
+    }
+
+    private static boolean isStreamingRequest(CodegenOperation operation) {
+        CodegenParameter body = operation.bodyParam;
+        if (body != null && (Boolean.TRUE.equals(body.isBinary) || Boolean.TRUE.equals(body.isFile))) {
+            return true;
+        }
+        for (CodegenParameter param : operation.formParams) {
+            if (Boolean.TRUE.equals(param.isFile)) {
+                return true;
+            }
+        }
+        // operations without a body inherit the global consumes too, which says nothing about them
+        boolean hasBody = body != null || !operation.formParams.isEmpty();
+        return hasBody && isBinaryOrMultipart(operation.consumes);
+    }
+
+    private static boolean isStreamingResponse(CodegenOperation operation) {
+        return Boolean.TRUE.equals(operation.isResponseBinary) || "file".equalsIgnoreCase(operation.returnBaseType)
+                || (operation.produces != null && operation.produces.size() == 1
+                && hasMediaType(operation.produces, OCTET_STREAM));
+    }
+
+    private static boolean isBinaryOrMultipart(List<Map<String, String>> mediaTypes) {
+        if (mediaTypes == null || mediaTypes.isEmpty()) {
+            return false;
+        }
+        for (Map<String, String> entry : mediaTypes) {
+            String mediaType = String.valueOf(entry.get("mediaType")).toLowerCase(Locale.ROOT);
+            if (!mediaType.startsWith(MULTIPART) && !mediaType.startsWith(OCTET_STREAM)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasMediaType(List<Map<String, String>> mediaTypes, String mediaType) {
+        if (mediaTypes == null) {
+            return false;
+        }
+        for (Map<String, String> entry : mediaTypes) {
+            if (mediaType.equalsIgnoreCase(entry.get("mediaType"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import java.util.List;
+
+/**
+ * Validation constraints of a single value (a json field of a model or an operation parameter),
+ * resolved at generation time. Templates turn each non null constraint into a straight-line check.
+ */
+public class ValidationRule {
+
+    /**
+     * Name of the value used in error messages.
+     */
+    public String name;
+
+    /**
+     * Ballerina expression holding the raw value.
+     */
+    public String expression;
+
+    /**
+     * Condition prefix which skips the remaining checks when an optional value is absent, may be empty.
+     */
+    public String guard = "";
+
+    /**
+     * Ballerina condition which is true when the value is absent, null if absence cannot be detected.
+     */
+    public String absent;
+
+    /**
+     * Ballerina expression of the value as a string, for length, pattern and enum checks.
+     */
+    public String stringValue;
+
+    /**
+     * Ballerina expression of the value as a float, for range checks.
+     */
+    public String numberValue;
+
+    public boolean required;
+
+    /**
+     * Whether the json type of the value has to be checked, false for parameters bound to typed variables.
+     */
+    public boolean typed;
+
+    /**
+     * Json type check suffix (String, Integer, Number, Boolean, Object, Array).
+     */
+    public String type;
+
+    /**
+     * Ballerina conditions, one per allowed value, which are true when the value equals that allowed value.
+     */
+    public List<String> enumComparisons;
+
+    public Integer minLength;
+
+    public Integer maxLength;
+
+    /**
+     * Pattern escaped for use within a ballerina string literal.
+     */
+    public String pattern;
+
+    /**
+     * Pattern wrapped to be found anywhere in the value by a whole string match, escaped for use within a ballerina
+     * string literal.
+     */
+    public String searchPattern;
+
+    public String minimum;
+
+    public boolean exclusiveMinimum;
+
+    public String maximum;
+
+    public boolean exclusiveMaximum;
+
+    /**
+     * Validator function of a nested model.
+     */
+    public String validator;
+}
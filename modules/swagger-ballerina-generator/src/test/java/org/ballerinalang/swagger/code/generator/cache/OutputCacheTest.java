@@ -0,0 +1,140 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cache;
+
+import org.ballerinalang.swagger.code.generator.cmd.Generate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests that restoring a cached output leaves the cache entry untouched by later runs into the same directory, and that
+ * the key follows the files a definition references.
+ */
+public class OutputCacheTest {
+
+    private static final String ENTRY_MARKER = ".entry";
+
+    private final Path spec = Paths.get(System.getProperty("basedir", System.getProperty("user.dir")),
+            "src", "test", "resources", "specs", "small.yaml");
+
+    private Path workDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("swagger-ballerina-cache");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                path.toFile().setWritable(true);
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testRestoredOutputIsNotSharedWithCache() throws IOException {
+        Path cacheDir = workDir.resolve("cache");
+        Path output = workDir.resolve("out");
+        generate(cacheDir, output, false);
+        Map<String, String> entries = snapshot(cacheDir);
+        Assert.assertFalse(entries.isEmpty(), "Generation stored no cache entry");
+
+        // the second run restores the entry, the third rewrites the restored files with a different output
+        generate(cacheDir, output, false);
+        generate(null, output, true);
+
+        Assert.assertEquals(snapshot(cacheDir), entries, "Regenerating over a restored output changed the cache");
+        generate(cacheDir, workDir.resolve("restored"), false);
+        Assert.assertEquals(snapshot(workDir.resolve("restored")).size(), entries.size(),
+                "Cache entry could not be restored after regenerating over it");
+    }
+
+    @Test
+    public void testEditedExternalRefChangesKey() throws IOException {
+        Path specDir = Files.createDirectories(workDir.resolve("specs"));
+        Path root = specDir.resolve("root.yaml");
+        Files.write(root, ("swagger: \"2.0\"\n"
+                + "info: {version: 1.0.0, title: Refs}\n"
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      operationId: listPets\n"
+                + "      responses:\n"
+                + "        \"200\":\n"
+                + "          description: A pet\n"
+                + "          schema: {$ref: 'models/pet.yaml#/Pet'}\n").getBytes(StandardCharsets.UTF_8));
+        Path pet = Files.createDirectories(specDir.resolve("models")).resolve("pet.yaml");
+        Files.write(pet, "Pet:\n  properties:\n    name: {type: string}\n".getBytes(StandardCharsets.UTF_8));
+        Path cacheDir = workDir.resolve("cache");
+        OutputCache cache = new OutputCache(cacheDir, 0);
+        String key = cache.computeKey(root.toString(), null, Collections.emptyMap());
+
+        Files.write(pet, "Pet:\n  properties:\n    nickname: {type: string}\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotEquals(cache.computeKey(root.toString(), null, Collections.emptyMap()), key,
+                "Editing a file referenced by the definition left the key as it was");
+    }
+
+    private void generate(Path cacheDir, Path output, boolean instrument) {
+        Generate generate = new Generate();
+        generate.setSpec(spec.toString());
+        generate.setLang("ballerina-connector");
+        generate.setOutput(output.toString());
+        generate.setApiPackage("org.ballerinalang.cache");
+        generate.setInstrument(instrument);
+        if (cacheDir != null) {
+            generate.setCacheDir(cacheDir.toString());
+        }
+        generate.run();
+    }
+
+    /**
+     * Reads the files of all cache entries, or of an output directory, by relative path.
+     */
+    private static Map<String, String> snapshot(Path root) throws IOException {
+        Map<String, String> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Path relative = root.relativize(path);
+                // entries are directories named by their key, the other files hold statistics and the lock
+                if (relative.getNameCount() < 2 || ENTRY_MARKER.equals(path.getFileName().toString())) {
+                    continue;
+                }
+                files.put(relative.toString().replace('\\', '/'),
+                        new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+}
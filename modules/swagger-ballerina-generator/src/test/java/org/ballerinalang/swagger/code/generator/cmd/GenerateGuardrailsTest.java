@@ -0,0 +1,123 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import org.ballerinalang.swagger.code.generator.util.GenerationAbortedException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests that runs going over their time, allocation or output budget, or cancelled, are aborted with a diagnostic
+ * naming what they were processing, and that runs within their budget are not affected.
+ */
+public class GenerateGuardrailsTest {
+
+    private final Path spec = Paths.get(System.getProperty("basedir", System.getProperty("user.dir")),
+            "src", "test", "resources", "specs", "medium.json");
+
+    private Path workDir;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("swagger-ballerina-guardrails");
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testWithinBudget() throws IOException {
+        Generate generate = generate("within");
+        generate.setTimeLimitMillis(60000);
+        generate.setMaxAllocatedBytes(4L * 1024 * 1024 * 1024);
+        generate.setMaxOutputBytes(64L * 1024 * 1024);
+        generate.run();
+        Assert.assertTrue(Files.exists(workDir.resolve("within")), "Run within its budget wrote no output");
+    }
+
+    @Test
+    public void testOutputBudget() {
+        Generate generate = generate("output");
+        generate.setMaxOutputBytes(1);
+        GenerationAbortedException aborted = abort(generate);
+        Assert.assertFalse(aborted.isCancelled());
+        Assert.assertTrue(aborted.getSubject().startsWith("file "), aborted.getMessage());
+        Assert.assertTrue(aborted.getMessage().contains("output budget"), aborted.getMessage());
+    }
+
+    @Test
+    public void testAllocationBudget() {
+        Generate generate = generate("allocation");
+        generate.setMaxAllocatedBytes(1);
+        GenerationAbortedException aborted = abort(generate);
+        Assert.assertFalse(aborted.isCancelled());
+        Assert.assertTrue(aborted.getMessage().contains("allocation budget"), aborted.getMessage());
+    }
+
+    @Test
+    public void testTimeLimit() {
+        Generate generate = generate("time");
+        generate.setTimeLimitMillis(1);
+        GenerationAbortedException aborted = abort(generate);
+        Assert.assertFalse(aborted.isCancelled());
+        Assert.assertTrue(aborted.getMessage().contains("time limit"), aborted.getMessage());
+    }
+
+    @Test
+    public void testCancel() {
+        Generate generate = generate("cancel");
+        generate.cancel();
+        GenerationAbortedException aborted = abort(generate);
+        Assert.assertTrue(aborted.isCancelled());
+        Assert.assertEquals(aborted.getSubject(), "swagger definition " + spec);
+    }
+
+    private Generate generate(String run) {
+        Generate generate = new Generate();
+        generate.setSpec(spec.toString());
+        generate.setLang("ballerina-connector");
+        generate.setOutput(workDir.resolve(run).toString());
+        generate.setApiPackage("org.ballerinalang.guardrails");
+        return generate;
+    }
+
+    private static GenerationAbortedException abort(Generate generate) {
+        try {
+            generate.run();
+        } catch (GenerationAbortedException e) {
+            return e;
+        }
+        throw new AssertionError("Run over its budget was not aborted");
+    }
+}
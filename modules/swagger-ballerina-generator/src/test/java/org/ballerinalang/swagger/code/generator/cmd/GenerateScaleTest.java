@@ -0,0 +1,312 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * End to end regression tests running {@link Generate} for every generator against small, medium and huge swagger
+ * definitions. The output of the small and medium definitions is compared with golden files, every output must be
+ * byte identical across repeated and parallel runs, and every run must stay within its wall time and peak heap
+ * budget. The output of a small definition generated with each optional feature enabled is compared with golden
+ * files too.
+ * <p>
+ * Budgets are set per definition size with the scale.&lt;size&gt;.maxMillis and scale.&lt;size&gt;.maxHeapMb system
+ * properties, and the number of operations of the huge definition with scale.huge.operations. Run with
+ * -Dgolden.update=true to rewrite the golden files after an intended change of the generated output.
+ */
+public class GenerateScaleTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerateScaleTest.class);
+
+    private static final String[] LANGUAGES = {"ballerina-connector", "ballerina-skeleton", "ballerina-mock-service"};
+
+    private static final String API_PACKAGE = "org.ballerinalang.scale";
+
+    private static final int PARALLEL_RUNS = 4;
+
+    private static final String README = "README.md";
+
+    private static final String BUILD_DATE = "- Build date:";
+
+    private static final String OPTIONS_SPEC = "options.yaml";
+
+    private static final String MERGED_SPEC = "options-merged.yaml";
+
+    private final Path resources = Paths.get(System.getProperty("basedir", System.getProperty("user.dir")),
+            "src", "test", "resources");
+
+    private Path workDir;
+
+    private Path hugeSpec;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("swagger-ballerina-scale");
+        hugeSpec = workDir.resolve("huge.json");
+        ScaleSpecs.writeHugeSpec(hugeSpec, Integer.getInteger("scale.huge.operations", 2000));
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        delete(workDir);
+    }
+
+    @DataProvider(name = "committedSpecs")
+    public Object[][] committedSpecs() {
+        return cases("small", "medium");
+    }
+
+    @DataProvider(name = "allSpecs")
+    public Object[][] allSpecs() {
+        return cases("small", "medium", "huge");
+    }
+
+    /**
+     * One case per optional feature: name, generator, additional properties, instrumentation and merged definition.
+     */
+    @DataProvider(name = "optionCases")
+    public Object[][] optionCases() {
+        return new Object[][]{
+                {"sharding", "ballerina-skeleton", "shardBy=prefix,maxOperationsPerFile=1", false, null},
+                {"batch-actions", "ballerina-connector", "batchActions=true,batchConcurrency=2", false, null},
+                {"pagination", "ballerina-connector", "pagination=true", false, null},
+                {"response-cache", "ballerina-connector", "responseCache=true,responseCacheSize=100", false, null},
+                {"reply-cache", "ballerina-skeleton", "replyCacheSize=100", false, null},
+                {"compression", "ballerina-mock-service", "compression=gzip|deflate,compressionThreshold=512",
+                        false, null},
+                {"client-decompression", "ballerina-connector", "compression=gzip,clientDecompression=true", false,
+                        null},
+                {"merging", "ballerina-connector", null, false, MERGED_SPEC},
+                {"instrumentation", "ballerina-connector", null, true, null},
+        };
+    }
+
+    @Test(dataProvider = "committedSpecs")
+    public void testGoldenOutput(String lang, String size) throws IOException {
+        assertGolden(generate(lang, size, "golden"), resources.resolve("golden").resolve(lang + "-" + size + ".txt"),
+                lang + " for the " + size + " definition");
+    }
+
+    @Test(dataProvider = "optionCases")
+    public void testOptionsGoldenOutput(String name, String lang, String additionalProperties, boolean instrument,
+                                        String mergedSpec) throws IOException {
+        Path output = workDir.resolve("options-" + name);
+        delete(output);
+        Generate generate = new Generate();
+        generate.setSpec(resources.resolve("specs").resolve(OPTIONS_SPEC).toString());
+        generate.setLang(lang);
+        generate.setOutput(output.toString());
+        generate.setApiPackage(API_PACKAGE);
+        generate.setAdditionalProperties(additionalProperties);
+        generate.setInstrument(instrument);
+        if (mergedSpec != null) {
+            generate.setMergedSpecs(Collections.singletonList(resources.resolve("specs").resolve(mergedSpec)
+                    .toString()));
+        }
+        generate.run();
+        assertGolden(output, resources.resolve("golden").resolve("options").resolve(name + ".txt"),
+                lang + " with " + name);
+    }
+
+    @Test(dataProvider = "committedSpecs")
+    public void testDeterministicOutput(String lang, String size) throws Exception {
+        Map<String, String> expected = snapshot(generate(lang, size, "sequential-0"));
+        Assert.assertEquals(snapshot(generate(lang, size, "sequential-1")), expected,
+                "Repeated runs of " + lang + " for the " + size + " definition differ");
+
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_RUNS);
+        try {
+            List<Future<Path>> runs = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_RUNS; i++) {
+                String run = "parallel-" + i;
+                runs.add(executor.submit(() -> generate(lang, size, run)));
+            }
+            for (Future<Path> run : runs) {
+                Assert.assertEquals(snapshot(run.get()), expected,
+                        "Parallel runs of " + lang + " for the " + size + " definition differ");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(dataProvider = "allSpecs")
+    public void testBudgets(String lang, String size) throws IOException {
+        long maxMillis = Long.getLong("scale." + size + ".maxMillis", defaultMaxMillis(size));
+        long maxHeapMb = Long.getLong("scale." + size + ".maxHeapMb", defaultMaxHeapMb(size));
+
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        generate(lang, size, "budget");
+        long millis = (System.nanoTime() - start) / 1000000;
+        long heapMb = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024 * 1024);
+        LOGGER.info(lang + " took " + millis + " ms and up to " + heapMb + " MB of heap for the " + size
+                + " definition");
+
+        Assert.assertTrue(millis <= maxMillis, lang + " took " + millis + " ms for the " + size
+                + " definition, over its budget of " + maxMillis + " ms");
+        Assert.assertTrue(heapMb <= maxHeapMb, lang + " used up to " + heapMb + " MB of heap for the " + size
+                + " definition, over its budget of " + maxHeapMb + " MB");
+    }
+
+    private static void assertGolden(Path output, Path golden, String description) throws IOException {
+        String actual = render(snapshot(output));
+        if (Boolean.getBoolean("golden.update")) {
+            Files.createDirectories(golden.getParent());
+            Files.write(golden, actual.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        Assert.assertTrue(Files.exists(golden),
+                "Golden file " + golden + " is missing, run with -Dgolden.update=true");
+        Assert.assertEquals(actual, new String(Files.readAllBytes(golden), StandardCharsets.UTF_8),
+                "Output of " + description + " differs from " + golden);
+    }
+
+    private Object[][] cases(String... sizes) {
+        Object[][] cases = new Object[LANGUAGES.length * sizes.length][];
+        int i = 0;
+        for (String size : sizes) {
+            for (String lang : LANGUAGES) {
+                cases[i++] = new Object[]{lang, size};
+            }
+        }
+        return cases;
+    }
+
+    private static long defaultMaxMillis(String size) {
+        switch (size) {
+            case "small":
+                return 5000;
+            case "medium":
+                return 5000;
+            default:
+                return 20000;
+        }
+    }
+
+    private static long defaultMaxHeapMb(String size) {
+        switch (size) {
+            case "small":
+                return 128;
+            case "medium":
+                return 128;
+            default:
+                return 384;
+        }
+    }
+
+    /**
+     * Runs the generator into a directory of its own.
+     *
+     * @return the directory holding the generated package
+     */
+    private Path generate(String lang, String size, String run) throws IOException {
+        Path output = workDir.resolve(lang + "-" + size + "-" + run);
+        delete(output);
+        Generate generate = new Generate();
+        generate.setSpec(spec(size).toString());
+        generate.setLang(lang);
+        generate.setOutput(output.toString());
+        generate.setApiPackage(API_PACKAGE);
+        generate.run();
+        return output;
+    }
+
+    private Path spec(String size) {
+        switch (size) {
+            case "small":
+                return resources.resolve("specs").resolve("small.yaml");
+            case "medium":
+                return resources.resolve("specs").resolve("medium.json");
+            default:
+                return hugeSpec;
+        }
+    }
+
+    /**
+     * Reads the generated files by path relative to the output directory, leaving out the build date of READMEs.
+     */
+    private static Map<String, String> snapshot(Path output) throws IOException {
+        Map<String, String> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(output)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                if (README.equals(path.getFileName().toString())) {
+                    content = Stream.of(content.split("\n", -1))
+                            .filter(line -> !line.startsWith(BUILD_DATE))
+                            .collect(Collectors.joining("\n"));
+                }
+                files.put(output.relativize(path).toString().replace('\\', '/'), content);
+            }
+        }
+        return files;
+    }
+
+    private static String render(Map<String, String> snapshot) {
+        StringBuilder rendered = new StringBuilder();
+        for (Map.Entry<String, String> file : snapshot.entrySet()) {
+            rendered.append("==== ").append(file.getKey()).append(" ====\n").append(file.getValue());
+            if (!file.getValue().endsWith("\n")) {
+                rendered.append('\n');
+            }
+        }
+        return rendered.toString();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.util.Json;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes the huge swagger definition of the scale tests, which is too large to keep in the repository. Operations
+ * are spread over tags of 100 operations and reference a pool of definitions, which reference each other, so the
+ * definition exercises both the number of operations and the size of the reference graph.
+ */
+final class ScaleSpecs {
+
+    private static final int OPERATIONS_PER_TAG = 100;
+
+    private static final int OPERATIONS_PER_DEFINITION = 5;
+
+    private ScaleSpecs() {
+    }
+
+    /**
+     * @param file       file to write the definition to
+     * @param operations number of operations, half of them get and half put operations
+     * @throws IOException if the definition cannot be written
+     */
+    static void writeHugeSpec(Path file, int operations) throws IOException {
+        int definitions = Math.max(1, operations / OPERATIONS_PER_DEFINITION);
+        ObjectNode spec = Json.mapper().createObjectNode();
+        spec.put("swagger", "2.0");
+        spec.putObject("info").put("title", "Huge").put("version", "1.0.0");
+        spec.put("host", "api.example.com");
+        spec.put("basePath", "/huge");
+        spec.putArray("schemes").add("https");
+        spec.putArray("produces").add("application/json");
+
+        ObjectNode paths = spec.putObject("paths");
+        for (int i = 0; i < operations / 2; i++) {
+            String tag = "tag" + (i * 2 / OPERATIONS_PER_TAG);
+            String definition = "#/definitions/Def" + (i % definitions);
+            ObjectNode path = paths.putObject("/res" + i + "/{id}");
+
+            ObjectNode get = path.putObject("get");
+            get.putArray("tags").add(tag);
+            get.put("operationId", "getRes" + i);
+            ArrayNode getParams = get.putArray("parameters");
+            addParameter(getParams, "id", "path", true).put("type", "string");
+            addParameter(getParams, "q", "query", false).put("type", "string").put("maxLength", 10);
+            addParameter(getParams, "limit", "query", false).put("type", "integer").put("minimum", 1);
+            get.putObject("responses").putObject("200").put("description", "ok")
+                    .putObject("schema").put("$ref", definition);
+
+            ObjectNode put = path.putObject("put");
+            put.putArray("tags").add(tag);
+            put.put("operationId", "putRes" + i);
+            ArrayNode putParams = put.putArray("parameters");
+            addParameter(putParams, "id", "path", true).put("type", "string");
+            addParameter(putParams, "body", "body", true).putObject("schema").put("$ref", definition);
+            ObjectNode schema = put.putObject("responses").putObject("200").put("description", "ok")
+                    .putObject("schema").put("type", "array");
+            schema.putObject("items").put("$ref", definition);
+        }
+
+        ObjectNode models = spec.putObject("definitions");
+        for (int i = 0; i < definitions; i++) {
+            ObjectNode properties = models.putObject("Def" + i).putObject("properties");
+            properties.putObject("id").put("type", "string");
+            properties.putObject("count").put("type", "integer").put("format", "int32");
+            properties.putObject("status").put("type", "string").putArray("enum").add("on").add("off");
+            properties.putObject("next").put("$ref", "#/definitions/Def" + ((i + 1) % definitions));
+            ObjectNode related = properties.putObject("related").put("type", "array");
+            related.putObject("items").put("$ref", "#/definitions/Def" + ((i + 7) % definitions));
+        }
+        Json.pretty().writeValue(file.toFile(), spec);
+    }
+
+    private static ObjectNode addParameter(ArrayNode parameters, String name, String in, boolean required) {
+        return parameters.addObject().put("name", name).put("in", in).put("required", required);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.cmd;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import io.swagger.codegen.DefaultGenerator;
+import org.ballerinalang.swagger.code.generator.BallerinaSkeletonCodeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures how much of a generator run goes into rendering templates, which decided against compiling the built-in
+ * templates into Java renderers. Not part of the suite, run it with
+ * {@code mvn test -Dtest=TemplateRenderBenchmark [-Dscale.huge.operations=2000]}.
+ * <p>
+ * The skeleton api.mustache is compiled and rendered against the operation bundles captured from a full run over the
+ * huge definition, reporting the cold and warm times of both. Every generator is then run over the definition while
+ * the generating thread is sampled, reporting the share of samples inside jmustache.
+ */
+public class TemplateRenderBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateRenderBenchmark.class);
+
+    private static final String[] LANGUAGES = {"ballerina-connector", "ballerina-skeleton", "ballerina-mock-service"};
+
+    private static final String TEMPLATE = "api.mustache";
+
+    private static final String TEMPLATE_PACKAGE = "com.samskivert.mustache.";
+
+    private static final int WARM_ROUNDS = 20;
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    /**
+     * Operation bundles handed to api.mustache during the last run of {@link CapturingSkeleton}.
+     */
+    private static final List<Map<String, Object>> BUNDLES = Collections.synchronizedList(new ArrayList<>());
+
+    private Path workDir;
+
+    private Path hugeSpec;
+
+    /**
+     * Skeleton generator keeping the bundles api.mustache is rendered with, loaded by class name through
+     * {@link Generate#setLang(String)}.
+     */
+    public static class CapturingSkeleton extends BallerinaSkeletonCodeGenerator {
+
+        @Override
+        public Map<String, Object> postProcessOperations(Map<String, Object> objs) {
+            Map<String, Object> bundle = super.postProcessOperations(objs);
+            BUNDLES.add(bundle);
+            return bundle;
+        }
+    }
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("swagger-ballerina-benchmark");
+        hugeSpec = workDir.resolve("huge.json");
+        ScaleSpecs.writeHugeSpec(hugeSpec, Integer.getInteger("scale.huge.operations", 2000));
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        delete(workDir);
+    }
+
+    @Test
+    public void testInterpretedRendering() {
+        BUNDLES.clear();
+        generate(CapturingSkeleton.class.getName(), "capture");
+        Assert.assertFalse(BUNDLES.isEmpty(), "No operation bundle was captured");
+
+        CapturingSkeleton config = new CapturingSkeleton();
+        DefaultGenerator generator = new DefaultGenerator();
+        String source = generator.readTemplate(generator.getFullTemplateFile(config, TEMPLATE));
+
+        long start = System.nanoTime();
+        Template template = compile(generator, config, source);
+        long coldCompile = System.nanoTime() - start;
+        start = System.nanoTime();
+        long bytes = render(template);
+        long coldRender = System.nanoTime() - start;
+
+        long[] compiles = new long[WARM_ROUNDS];
+        long[] renders = new long[WARM_ROUNDS];
+        for (int i = 0; i < WARM_ROUNDS; i++) {
+            start = System.nanoTime();
+            template = compile(generator, config, source);
+            compiles[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            render(template);
+            renders[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(compiles);
+        Arrays.sort(renders);
+        LOGGER.info(String.format("%s for %d operation bundles: compile %.1f ms (%.1f ms cold), "
+                        + "render %d KB %.0f-%.0f ms warm (%.0f ms cold)", TEMPLATE, BUNDLES.size(), millis(compiles[WARM_ROUNDS / 2]),
+                millis(coldCompile), bytes / 1024, millis(renders[0]), millis(renders[WARM_ROUNDS - 1]),
+                millis(coldRender)));
+    }
+
+    @Test
+    public void testTemplateShareOfRuns() throws InterruptedException {
+        for (String lang : LANGUAGES) {
+            // the first run warms up the generator, the second one is sampled
+            generate(lang, lang + "-warmup");
+            int[] samples = new int[2];
+            Thread target = Thread.currentThread();
+            Thread sampler = new Thread(() -> sample(target, samples), "template-sampler");
+            sampler.setDaemon(true);
+            long start = System.nanoTime();
+            sampler.start();
+            try {
+                generate(lang, lang + "-sampled");
+            } finally {
+                sampler.interrupt();
+                sampler.join();
+            }
+            LOGGER.info(String.format("%s took %.0f ms, %d of %d samples (%.1f%%) in template processing", lang,
+                    millis(System.nanoTime() - start), samples[1], samples[0],
+                    samples[0] == 0 ? 0 : 100.0 * samples[1] / samples[0]));
+        }
+    }
+
+    /**
+     * Counts the samples of the target thread in samples[0], and those inside jmustache in samples[1].
+     */
+    private static void sample(Thread target, int[] samples) {
+        while (!Thread.currentThread().isInterrupted()) {
+            StackTraceElement[] stack = target.getStackTrace();
+            samples[0]++;
+            for (StackTraceElement frame : stack) {
+                if (frame.getClassName().startsWith(TEMPLATE_PACKAGE)) {
+                    samples[1]++;
+                    break;
+                }
+            }
+            try {
+                Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compiles a template the way {@link DefaultGenerator} does, with partials read from the same template folders.
+     */
+    private static Template compile(DefaultGenerator generator, CapturingSkeleton config, String source) {
+        return Mustache.compiler()
+                .withLoader(name -> generator.getTemplateReader(generator.getFullTemplateFile(config,
+                        name + ".mustache")))
+                .defaultValue("")
+                .compile(source);
+    }
+
+    private static long render(Template template) {
+        long bytes = 0;
+        synchronized (BUNDLES) {
+            for (Map<String, Object> bundle : BUNDLES) {
+                bytes += template.execute(bundle).getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return bytes;
+    }
+
+    private void generate(String lang, String run) {
+        Generate generate = new Generate();
+        generate.setSpec(hugeSpec.toString());
+        generate.setLang(lang);
+        generate.setOutput(workDir.resolve(run).toString());
+        generate.setApiPackage("org.ballerinalang.benchmark");
+        generate.run();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
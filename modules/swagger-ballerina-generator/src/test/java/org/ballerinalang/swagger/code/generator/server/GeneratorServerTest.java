@@ -0,0 +1,227 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.server;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Tests of the {@link GeneratorServer} endpoints, run against a server on an ephemeral loopback port.
+ */
+public class GeneratorServerTest {
+
+    private static final int MAX_REQUEST_SIZE = 64 * 1024;
+
+    private GeneratorServer server;
+
+    private byte[] spec;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        spec = Files.readAllBytes(Paths.get(System.getProperty("basedir", System.getProperty("user.dir")),
+                "src", "test", "resources", "specs", "small.yaml"));
+        server = new GeneratorServer();
+        server.setPort(0);
+        server.setWorkers(2);
+        server.setQueueCapacity(2);
+        server.setMaxRequestSize(MAX_REQUEST_SIZE);
+        server.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testGenerate() throws IOException {
+        HttpURLConnection connection = post("connector", spec);
+        Assert.assertEquals(connection.getResponseCode(), 200);
+        Assert.assertEquals(connection.getContentType(), "application/zip");
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(connection.getInputStream())) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        Assert.assertTrue(entries.stream().anyMatch(name -> name.endsWith(".bal")), "No sources in " + entries);
+
+        long hits = server.getMetrics().getCacheHits();
+        Assert.assertEquals(post("connector", spec).getResponseCode(), 200);
+        Assert.assertEquals(server.getMetrics().getCacheHits(), hits + 1, "Repeated request was not cached");
+    }
+
+    @Test
+    public void testBadRequests() throws IOException {
+        Assert.assertEquals(post("unknown", spec).getResponseCode(), 400);
+        Assert.assertEquals(post("connector", new byte[0]).getResponseCode(), 400);
+
+        HttpURLConnection get = (HttpURLConnection) url("connector").openConnection();
+        Assert.assertEquals(get.getResponseCode(), 405);
+    }
+
+    @Test
+    public void testRequestSizeLimit() throws IOException {
+        byte[] large = new byte[MAX_REQUEST_SIZE + 1];
+        System.arraycopy(spec, 0, large, 0, spec.length);
+        HttpURLConnection connection = post("connector", large);
+        Assert.assertEquals(connection.getResponseCode(), 413);
+        Assert.assertTrue(read(connection.getErrorStream()).contains(String.valueOf(MAX_REQUEST_SIZE)));
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http",
+                InetAddress.getLoopbackAddress().getHostAddress(), server.getPort(), "/metrics").openConnection();
+        Assert.assertEquals(connection.getResponseCode(), 200);
+        Assert.assertTrue(read(connection.getInputStream()).contains("requests_total "));
+    }
+
+    @Test
+    public void testSaturation() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GeneratorServer saturated = new GeneratorServer() {
+            @Override
+            byte[] generate(byte[] spec, String targetLanguage, String apiPackage) throws IOException {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new byte[0];
+            }
+        };
+        saturated.setPort(0);
+        saturated.setWorkers(1);
+        saturated.setQueueCapacity(1);
+        saturated.start();
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            // the first request takes the only worker, the second the only queue slot
+            Future<Integer> first = clients.submit(() -> post(saturated, "connector", spec("first"))
+                    .getResponseCode());
+            Assert.assertTrue(running.await(30, TimeUnit.SECONDS), "First generation did not start");
+            Future<Integer> second = clients.submit(() -> post(saturated, "connector", spec("second"))
+                    .getResponseCode());
+            long deadline = System.currentTimeMillis() + 30000;
+            while (saturated.queuedGenerations() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(saturated.queuedGenerations(), 1, "Second generation was not queued");
+
+            HttpURLConnection third = post(saturated, "connector", spec("third"));
+            Assert.assertEquals(third.getResponseCode(), 429);
+            Assert.assertEquals(third.getHeaderField("Retry-After"), "1");
+            Assert.assertEquals(saturated.getMetrics().getRejected(), 1);
+
+            release.countDown();
+            Assert.assertEquals(first.get(30, TimeUnit.SECONDS).intValue(), 200);
+            Assert.assertEquals(second.get(30, TimeUnit.SECONDS).intValue(), 200);
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+            saturated.stop();
+        }
+    }
+
+    @Test
+    public void testResultCacheBound() {
+        GenerationResultCache cache = new GenerationResultCache(10, 100);
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        cache.get("a");
+        cache.put("c", new byte[40]);
+        Assert.assertNull(cache.get("b"), "Least recently used archive was kept over the byte bound");
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertEquals(cache.totalBytes(), 80);
+
+        cache.put("d", new byte[101]);
+        Assert.assertNull(cache.get("d"), "Archive larger than the byte bound was cached");
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+    private byte[] spec(String title) {
+        return new String(spec, StandardCharsets.UTF_8).replace("Swagger Petstore", title)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private URL url(String action) throws IOException {
+        return url(server, action);
+    }
+
+    private static URL url(GeneratorServer target, String action) throws IOException {
+        return new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), target.getPort(),
+                "/generate?action=" + action + "&package=org.ballerinalang.server");
+    }
+
+    private HttpURLConnection post(String action, byte[] body) throws IOException {
+        return post(server, action, body);
+    }
+
+    private static HttpURLConnection post(GeneratorServer target, String action, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url(target, action).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        } catch (IOException e) {
+            // the server may answer and close before reading a rejected body in full
+        }
+        return connection;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        try (InputStream input = in) {
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
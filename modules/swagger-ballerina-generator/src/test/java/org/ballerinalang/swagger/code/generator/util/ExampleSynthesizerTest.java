@@ -0,0 +1,89 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.util.Yaml;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests of the array bounds honoured by {@link ExampleSynthesizer}, restored with {@link ArrayBounds}.
+ */
+public class ExampleSynthesizerTest {
+
+    private static final String DEFINITION = "swagger: \"2.0\"\n"
+            + "info: {version: 1.0.0, title: Examples}\n"
+            + "paths:\n"
+            + "  /pets:\n"
+            + "    get:\n"
+            + "      operationId: listPets\n"
+            + "      responses:\n"
+            + "        \"200\":\n"
+            + "          description: Pets\n"
+            + "          schema: {type: array, maxItems: 1, items: {$ref: \"#/definitions/Pet\"}}\n"
+            + "  /owners:\n"
+            + "    get:\n"
+            + "      operationId: listOwners\n"
+            + "      responses:\n"
+            + "        \"200\":\n"
+            + "          description: Owners\n"
+            + "          schema: {$ref: \"#/definitions/Owners\"}\n"
+            + "definitions:\n"
+            + "  Pet:\n"
+            + "    type: object\n"
+            + "    properties:\n"
+            + "      tags: {type: array, maxItems: 1, items: {type: string}}\n"
+            + "      visits: {type: array, minItems: 5, items: {type: integer}}\n"
+            + "      photos: {type: array, minItems: 1000000, items: {type: string}}\n"
+            + "  Owners:\n"
+            + "    type: array\n"
+            + "    minItems: 3\n"
+            + "    items: {type: string}\n";
+
+    @Test
+    public void testArrayBounds() throws IOException {
+        Map<String, JsonNode> payloads = synthesize(DEFINITION);
+        JsonNode pets = payloads.get(ExampleSynthesizer.operationKey("get", "/pets"));
+        Assert.assertEquals(pets.size(), 1, "maxItems of the response schema");
+        Assert.assertEquals(pets.get(0).get("tags").size(), 1, "maxItems of a definition property");
+        Assert.assertEquals(pets.get(0).get("visits").size(), 5, "minItems of a definition property");
+        Assert.assertEquals(payloads.get(ExampleSynthesizer.operationKey("get", "/owners")).size(), 3,
+                "minItems of an array definition");
+    }
+
+    @Test
+    public void testMinItemsCapped() throws IOException {
+        JsonNode pets = synthesize(DEFINITION).get(ExampleSynthesizer.operationKey("get", "/pets"));
+        Assert.assertEquals(pets.get(0).get("photos").size(), ExampleSynthesizer.MAX_ARRAY_SIZE);
+    }
+
+    private static Map<String, JsonNode> synthesize(String definition) throws IOException {
+        Swagger swagger = new SwaggerParser().parse(definition);
+        Assert.assertNotNull(swagger, "Test definition could not be parsed");
+        ArrayBounds.restore(swagger, Yaml.mapper().readTree(definition));
+        Map<String, Object> additionalProperties = new HashMap<>();
+        return new ExampleSynthesizer(swagger.getDefinitions(), additionalProperties).synthesize(swagger);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+*  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.swagger.code.generator.util;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.ballerinalang.swagger.code.generator.BallerinaConnectorCodeGenerator;
+import org.ballerinalang.swagger.code.generator.BallerinaMockServiceCodeGenerator;
+import org.ballerinalang.swagger.code.generator.BallerinaSkeletonCodeGenerator;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests of the {@link Preflight} checks, each against a small definition with one problem, for every generator.
+ */
+public class PreflightTest {
+
+    private static final String HEADER = "swagger: \"2.0\"\n"
+            + "info: {version: 1.0.0, title: Preflight}\n";
+
+    private static final String OK = "        \"200\": {description: Done}\n";
+
+    @DataProvider(name = "generators")
+    public Object[][] generators() {
+        return new Object[][]{
+                {new Preflight(new BallerinaConnectorCodeGenerator())},
+                {new Preflight(new BallerinaSkeletonCodeGenerator())},
+                {new Preflight(new BallerinaMockServiceCodeGenerator())},
+        };
+    }
+
+    @Test(dataProvider = "generators")
+    public void testSupportedParameterTypes(Preflight preflight) {
+        Swagger swagger = parse(HEADER
+                + "paths:\n"
+                + "  /pets/{petId}:\n"
+                + "    get:\n"
+                + "      operationId: getPet\n"
+                + "      parameters:\n"
+                + "        - {name: petId, in: path, required: true, type: string, format: uuid}\n"
+                + "        - {name: since, in: query, type: string, format: date-time}\n"
+                + "        - {name: limit, in: query, type: integer, format: int64}\n"
+                + "        - {name: tags, in: query, type: array, items: {type: string}}\n"
+                + "        - {name: X-Trace, in: header, type: string, format: byte}\n"
+                + "      responses:\n" + OK);
+        Assert.assertEquals(preflight.problems(swagger), Collections.emptyList());
+    }
+
+    @Test(dataProvider = "generators")
+    public void testUnsupportedParameterType(Preflight preflight) {
+        Swagger swagger = parse(HEADER
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      operationId: listPets\n"
+                + "      parameters:\n"
+                + "        - {name: photo, in: query, type: file}\n"
+                + "      responses:\n" + OK);
+        assertProblems(preflight.problems(swagger), "GET /pets parameter photo: type file is not supported");
+    }
+
+    @Test(dataProvider = "generators")
+    public void testUnresolvedRefs(Preflight preflight) {
+        Swagger swagger = parse(HEADER
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      operationId: listPets\n"
+                + "      parameters:\n"
+                + "        - $ref: '#/parameters/limit'\n"
+                + "      responses:\n"
+                + "        \"200\":\n"
+                + "          description: Pets\n"
+                + "          schema: {$ref: '#/definitions/Pets'}\n"
+                + "definitions:\n"
+                + "  Pet:\n"
+                + "    properties:\n"
+                + "      owner: {$ref: '#/definitions/Owner'}\n");
+        assertProblems(preflight.problems(swagger),
+                "GET /pets response 200: $ref #/definitions/Pets is not defined",
+                "GET /pets: a parameter $ref could not be resolved",
+                "definition Pet.owner: $ref #/definitions/Owner is not defined");
+    }
+
+    @Test(dataProvider = "generators")
+    public void testClashingOperationIds(Preflight preflight) {
+        Swagger swagger = parse(HEADER
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      operationId: getPet\n"
+                + "      responses:\n" + OK
+                + "    post:\n"
+                + "      operationId: get_pet\n"
+                + "      responses:\n" + OK
+                + "  /strings:\n"
+                + "    get:\n"
+                + "      operationId: string\n"
+                + "      responses:\n" + OK
+                + "    post:\n"
+                + "      operationId: callString\n"
+                + "      responses:\n" + OK);
+        assertProblems(preflight.problems(swagger),
+                "operationId CallString: used by GET /strings (string), POST /strings (callString)",
+                "operationId GetPet: used by GET /pets (getPet), POST /pets (get_pet)");
+    }
+
+    @Test(dataProvider = "generators")
+    public void testPathConflicts(Preflight preflight) {
+        Swagger swagger = parse(HEADER
+                + "paths:\n"
+                + "  /pets/{petId}:\n"
+                + "    get:\n"
+                + "      operationId: getPet\n"
+                + "      parameters:\n"
+                + "        - {name: petId, in: path, required: true, type: string}\n"
+                + "      responses:\n" + OK
+                + "  /pets/{name}:\n"
+                + "    get:\n"
+                + "      operationId: getPetByName\n"
+                + "      parameters:\n"
+                + "        - {name: name, in: path, required: true, type: string}\n"
+                + "      responses:\n" + OK);
+        assertProblems(preflight.problems(swagger), "GET /pets/{name}, /pets/{petId}: paths match the same requests");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Swagger definition has 1 problem:\n  GET .*")
+    public void testCheckFailsListingProblems() {
+        new Preflight(new BallerinaConnectorCodeGenerator()).check(parse(HEADER
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      operationId: listPets\n"
+                + "      parameters:\n"
+                + "        - {name: photo, in: header, type: file}\n"
+                + "      responses:\n" + OK));
+    }
+
+    private static Swagger parse(String definition) {
+        Swagger swagger = new SwaggerParser().parse(definition);
+        Assert.assertNotNull(swagger, "Test definition could not be parsed");
+        return swagger;
+    }
+
+    private static void assertProblems(List<String> problems, String... expected) {
+        Assert.assertEquals(String.join("\n", problems), String.join("\n", Arrays.asList(expected)));
+    }
+}